@@ -0,0 +1,187 @@
+package com.medsync.notificacao.application.services;
+
+import com.medsync.notificacao.presentation.dto.NotificacaoRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Template HTML de email compilado uma única vez na inicialização: para cada tipo de evento
+// as partes constantes (CSS com as cores, ícone, rodapé, mensagem personalizada) já ficam
+// prontas, e a renderização só intercala os campos dinâmicos num StringBuilder pré-dimensionado.
+// Motor padrão; html-engine=thymeleaf troca pelo template editável sem rebuild.
+@Component
+@ConditionalOnProperty(name = "app.notificacao.templates.html-engine", havingValue = "compilado", matchIfMissing = true)
+public class CompiledEmailTemplate implements EmailTemplateRenderer {
+
+    private static final String TEMPLATE = """
+        <!DOCTYPE html>
+        <html lang="pt-BR">
+        <head>
+            <meta charset="UTF-8">
+            <meta name="viewport" content="width=device-width, initial-scale=1.0">
+            <title>{{titulo}}</title>
+            <style>
+                body { font-family: -apple-system, BlinkMacSystemFont, 'Segoe UI', Roboto, sans-serif; margin: 0; padding: 0; background-color: #f8f9fa; }
+                .container { max-width: 600px; margin: 0 auto; background-color: #ffffff; border-radius: 8px; overflow: hidden; box-shadow: 0 4px 6px rgba(0, 0, 0, 0.1); }
+                .header { background: linear-gradient(135deg, {{cor}} 0%, {{corEscura}} 100%); color: white; padding: 30px; text-align: center; }
+                .header h1 { margin: 0; font-size: 24px; font-weight: 600; }
+                .content { padding: 30px; line-height: 1.6; color: #333333; }
+                .info-card { background-color: #f8f9fa; border-left: 4px solid {{cor}}; padding: 20px; margin: 20px 0; border-radius: 4px; }
+                .info-row { display: flex; justify-content: space-between; margin: 10px 0; padding: 8px 0; border-bottom: 1px solid #e9ecef; }
+                .info-row:last-child { border-bottom: none; }
+                .info-label { font-weight: 600; color: #495057; }
+                .info-value { color: #212529; }
+                .footer { background-color: #f8f9fa; padding: 20px; text-align: center; color: #6c757d; font-size: 14px; }
+                .button { display: inline-block; background-color: {{cor}}; color: white; padding: 12px 24px; text-decoration: none; border-radius: 6px; font-weight: 500; margin: 20px 0; }
+                .alert { background-color: #fff3cd; border: 1px solid #ffeaa7; color: #856404; padding: 15px; border-radius: 4px; margin: 15px 0; }
+                @media (max-width: 600px) { .container { margin: 10px; border-radius: 0; } .header, .content { padding: 20px; } .info-row { flex-direction: column; } }
+            </style>
+        </head>
+        <body>
+            <div class="container">
+                <div class="header">
+                    <h1>{{icone}} {{titulo}}</h1>
+                    <p>Olá, {{pacienteNome}}!</p>
+                </div>
+
+                <div class="content">
+                    <div class="info-card">
+                        <div class="info-row">
+                            <span class="info-label">📅 Data da Consulta:</span>
+                            <span class="info-value">{{data}}</span>
+                        </div>
+                        <div class="info-row">
+                            <span class="info-label">⏰ Horário:</span>
+                            <span class="info-value">{{hora}}</span>
+                        </div>
+                        <div class="info-row">
+                            <span class="info-label">👨‍⚕️ Médico:</span>
+                            <span class="info-value">{{medicoNome}}</span>
+                        </div>
+                        <div class="info-row">
+                            <span class="info-label">📍 Local:</span>
+                            <span class="info-value">{{local}}</span>
+                        </div>
+                        <div class="info-row">
+                            <span class="info-label">📞 Telefone:</span>
+                            <span class="info-value">{{medicoTelefone}}</span>
+                        </div>
+                        <div class="info-row">
+                            <span class="info-label">🏥 Clínica:</span>
+                            <span class="info-value">{{clinica}}</span>
+                        </div>
+                    </div>
+
+                    {{mensagemPersonalizada}}
+
+                    <div class="alert">
+                        <strong>⚠️ Importante:</strong> Em caso de dúvidas ou necessidade de reagendamento, entre em contato conosco com antecedência.
+                    </div>
+                </div>
+
+                <div class="footer">
+                    <p>Este é um email automático do sistema MedSync.</p>
+                    <p>Para sua segurança, não responda a este email.</p>
+                    <p>© 2025 MedSync - Transformando o cuidado em saúde</p>
+                </div>
+            </div>
+        </body>
+        </html>
+        """;
+
+    private static final Pattern MARCADOR = Pattern.compile("\\{\\{(\\w+)}}");
+
+    // Folga para os campos dinâmicos (nomes, título, telefone) além do texto estático
+    private static final int ESTIMATIVA_CAMPOS_DINAMICOS = 256;
+
+    private enum Campo { TITULO, PACIENTE_NOME, DATA, HORA, MEDICO_NOME, MEDICO_TELEFONE }
+
+    private record TemplateCompilado(String[] trechos, Campo[] campos, int tamanhoEstatico) {}
+
+    private final Map<TipoEventoEmail, TemplateCompilado> templatesPorTipo = new EnumMap<>(TipoEventoEmail.class);
+    private final FormatadorDataHora formatador;
+
+    public CompiledEmailTemplate(FormatadorDataHora formatador) {
+        this.formatador = formatador;
+        for (TipoEventoEmail tipo : TipoEventoEmail.values()) {
+            templatesPorTipo.put(tipo, compilar(tipo));
+        }
+    }
+
+    @Override
+    public String renderizar(NotificacaoRequest notificacao, String tipoEvento) {
+        TemplateCompilado template = templatesPorTipo.get(TipoEventoEmail.de(tipoEvento));
+
+        FormatadorDataHora.SlotFormatado slot = formatador.formatar(notificacao.dataHora());
+
+        StringBuilder html = new StringBuilder(template.tamanhoEstatico() + ESTIMATIVA_CAMPOS_DINAMICOS);
+        String[] trechos = template.trechos();
+        Campo[] campos = template.campos();
+        for (int i = 0; i < campos.length; i++) {
+            html.append(trechos[i]);
+            switch (campos[i]) {
+                case TITULO -> html.append(notificacao.titulo());
+                case PACIENTE_NOME -> html.append(notificacao.pacienteNome());
+                case DATA -> html.append(slot.data());
+                case HORA -> html.append(slot.hora());
+                case MEDICO_NOME -> html.append(notificacao.medicoNome());
+                case MEDICO_TELEFONE -> html.append(notificacao.medicoTelefone());
+            }
+        }
+        html.append(trechos[campos.length]);
+        return html.toString();
+    }
+
+    private TemplateCompilado compilar(TipoEventoEmail tipo) {
+        Map<String, String> constantes = Map.of(
+            "cor", tipo.cor(),
+            "corEscura", tipo.corEscura(),
+            "icone", tipo.icone(),
+            "local", TipoEventoEmail.LOCAL,
+            "clinica", TipoEventoEmail.CLINICA,
+            "mensagemPersonalizada", tipo.mensagemPersonalizada()
+        );
+
+        List<String> trechos = new ArrayList<>();
+        List<Campo> campos = new ArrayList<>();
+        StringBuilder trechoAtual = new StringBuilder();
+        Matcher matcher = MARCADOR.matcher(TEMPLATE);
+        int posicao = 0;
+        while (matcher.find()) {
+            trechoAtual.append(TEMPLATE, posicao, matcher.start());
+            String nome = matcher.group(1);
+            String constante = constantes.get(nome);
+            if (constante != null) {
+                trechoAtual.append(constante);
+            } else {
+                trechos.add(trechoAtual.toString());
+                campos.add(campoPorNome(nome));
+                trechoAtual.setLength(0);
+            }
+            posicao = matcher.end();
+        }
+        trechoAtual.append(TEMPLATE, posicao, TEMPLATE.length());
+        trechos.add(trechoAtual.toString());
+
+        int tamanhoEstatico = trechos.stream().mapToInt(String::length).sum();
+        return new TemplateCompilado(trechos.toArray(String[]::new), campos.toArray(Campo[]::new), tamanhoEstatico);
+    }
+
+    private Campo campoPorNome(String nome) {
+        return switch (nome) {
+            case "titulo" -> Campo.TITULO;
+            case "pacienteNome" -> Campo.PACIENTE_NOME;
+            case "data" -> Campo.DATA;
+            case "hora" -> Campo.HORA;
+            case "medicoNome" -> Campo.MEDICO_NOME;
+            case "medicoTelefone" -> Campo.MEDICO_TELEFONE;
+            default -> throw new IllegalStateException("Marcador desconhecido no template de email: " + nome);
+        };
+    }
+}
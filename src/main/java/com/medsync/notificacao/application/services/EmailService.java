@@ -1,5 +1,9 @@
 package com.medsync.notificacao.application.services;
 
+import com.medsync.notificacao.infrastructure.email.EmailBatchSender;
+import com.medsync.notificacao.infrastructure.email.EmailDespachoPriorizado;
+import com.medsync.notificacao.infrastructure.email.SmtpFalhaClassifier;
+import com.medsync.notificacao.infrastructure.metrics.LatenciaEstagios;
 import com.medsync.notificacao.presentation.dto.NotificacaoRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,6 +17,9 @@ import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import java.io.UnsupportedEncodingException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class EmailService {
@@ -20,6 +27,10 @@ public class EmailService {
     private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
     
     private final JavaMailSender mailSender;
+    private final EmailDespachoPriorizado despacho;
+    private final EmailBatchSender emailBatchSender;
+    private final EmailTemplateRenderer emailTemplate;
+    private final LatenciaEstagios latencia;
     
     @Value("${spring.mail.username:}")
     private String fromEmail;
@@ -33,11 +44,30 @@ public class EmailService {
     @Value("${app.notificacao.email.retry-attempts:3}")
     private int retryAttempts;
     
-    public EmailService(JavaMailSender mailSender) {
+    @Value("${app.notificacao.email.retry-base-delay-ms:2000}")
+    private long retryBaseDelayMs;
+    
+    @Value("${app.notificacao.email.retry-max-delay-ms:60000}")
+    private long retryMaxDelayMs;
+    
+    public EmailService(JavaMailSender mailSender,
+                        EmailDespachoPriorizado despacho,
+                        EmailBatchSender emailBatchSender,
+                        EmailTemplateRenderer emailTemplate,
+                        LatenciaEstagios latencia) {
         this.mailSender = mailSender;
+        this.despacho = despacho;
+        this.emailBatchSender = emailBatchSender;
+        this.emailTemplate = emailTemplate;
+        this.latencia = latencia;
     }
     
     public void enviarEmailConsultaCriada(NotificacaoRequest notificacao) {
+        enviarEmailConsultaCriada(notificacao, -1);
+    }
+    
+    // eventoInstanteMs: timestamp do evento de origem, para a latência ponta a ponta (-1 se desconhecido)
+    public void enviarEmailConsultaCriada(NotificacaoRequest notificacao, long eventoInstanteMs) {
         logger.info("Verificando configuração de email - emailEnabled: {}, fromEmail: '{}'", emailEnabled, fromEmail);
         if (!emailEnabled || !StringUtils.hasText(fromEmail)) {
             logger.warn("Envio de email desabilitado ou email não configurado - emailEnabled: {}, fromEmail: '{}'", emailEnabled, fromEmail);
@@ -49,18 +79,24 @@ public class EmailService {
             return;
         }
         
-        CompletableFuture.runAsync(() -> {
+        despacho.submeter(EmailDespachoPriorizado.Prioridade.TRANSACIONAL, () -> {
             enviarEmailComRetry(
+                EmailDespachoPriorizado.Prioridade.TRANSACIONAL,
                 notificacao.pacienteEmail(),
                 "✅ " + notificacao.titulo(),
-                gerarTemplateEmailHtml(notificacao, "criada"),
+                renderizar(notificacao, "criada", "CONSULTA_CRIADA"),
                 "CONSULTA_CRIADA",
-                notificacao.consultaId().toString()
+                notificacao.consultaId().toString(),
+                eventoInstanteMs
             );
         });
     }
     
     public void enviarEmailConsultaEditada(NotificacaoRequest notificacao) {
+        enviarEmailConsultaEditada(notificacao, -1);
+    }
+    
+    public void enviarEmailConsultaEditada(NotificacaoRequest notificacao, long eventoInstanteMs) {
         if (!emailEnabled || !StringUtils.hasText(fromEmail)) {
             logger.debug("Envio de email desabilitado ou email não configurado");
             return;
@@ -71,18 +107,31 @@ public class EmailService {
             return;
         }
         
-        CompletableFuture.runAsync(() -> {
+        despacho.submeter(EmailDespachoPriorizado.Prioridade.TRANSACIONAL, () -> {
             enviarEmailComRetry(
+                EmailDespachoPriorizado.Prioridade.TRANSACIONAL,
                 notificacao.pacienteEmail(),
                 "🔄 " + notificacao.titulo(),
-                gerarTemplateEmailHtml(notificacao, "editada"),
+                renderizar(notificacao, "editada", "CONSULTA_EDITADA"),
                 "CONSULTA_EDITADA",
-                notificacao.consultaId().toString()
+                notificacao.consultaId().toString(),
+                eventoInstanteMs
             );
         });
     }
     
     public void enviarEmailLembrete(NotificacaoRequest notificacao) {
+        enviarEmailLembrete(notificacao, EmailDespachoPriorizado.Prioridade.LEMBRETE, -1);
+    }
+    
+    // Lembretes mais próximos da consulta passam na frente dos de maior antecedência;
+    // a latência ponta a ponta conta a partir do instante previsto do lembrete
+    public void enviarEmailLembrete(NotificacaoRequest notificacao, int horasAntecedencia, long lembreteInstanteMs) {
+        enviarEmailLembrete(notificacao, despacho.prioridadeLembrete(horasAntecedencia), lembreteInstanteMs);
+    }
+    
+    private void enviarEmailLembrete(NotificacaoRequest notificacao, EmailDespachoPriorizado.Prioridade prioridade,
+                                     long lembreteInstanteMs) {
         if (!emailEnabled || !StringUtils.hasText(fromEmail)) {
             logger.debug("Envio de email desabilitado ou email não configurado");
             return;
@@ -93,49 +142,89 @@ public class EmailService {
             return;
         }
         
-        CompletableFuture.runAsync(() -> {
+        despacho.submeter(prioridade, () -> {
             enviarEmailComRetry(
+                prioridade,
                 notificacao.pacienteEmail(),
                 "⏰ " + notificacao.titulo(),
-                gerarTemplateEmailHtml(notificacao, "lembrete"),
+                renderizar(notificacao, "lembrete", "LEMBRETE"),
                 "LEMBRETE",
-                notificacao.consultaId().toString()
+                notificacao.consultaId().toString(),
+                lembreteInstanteMs
             );
         });
     }
     
-    private void enviarEmailComRetry(String to, String subject, String htmlContent, String tipoEvento, String consultaId) {
-        int tentativas = 0;
-        Exception ultimoErro = null;
+    private String renderizar(NotificacaoRequest notificacao, String variante, String tipoEvento) {
+        long inicio = System.nanoTime();
+        String html = emailTemplate.renderizar(notificacao, variante);
+        latencia.registrar(LatenciaEstagios.Estagio.TEMPLATE_HTML, tipoEvento, inicio);
+        return html;
+    }
+    
+    private void enviarEmailComRetry(EmailDespachoPriorizado.Prioridade prioridade, String to, String subject,
+                                     String htmlContent, String tipoEvento, String consultaId, long origemMs) {
+        tentarEnvio(new EnvioEmail(prioridade, to, subject, htmlContent, tipoEvento, consultaId, origemMs), 1);
+    }
+    
+    // A mensagem é montada no pool de dispatch e entregue ao envio em lote; o resultado
+    // volta de forma assíncrona e a espera do backoff fica na fila do despacho em vez de
+    // Thread.sleep, então nenhuma thread fica presa entre as tentativas e a nova tentativa
+    // respeita o limite de taxa do SMTP
+    private void tentarEnvio(EnvioEmail envio, int tentativa) {
+        long inicio = System.nanoTime();
+        CompletableFuture<Void> resultado;
+        try {
+            resultado = emailBatchSender.enviar(criarMensagem(envio.to(), envio.subject(), envio.htmlContent()));
+        } catch (MessagingException e) {
+            resultado = CompletableFuture.failedFuture(e);
+        }
         
-        while (tentativas < retryAttempts) {
-            try {
-                enviarEmail(to, subject, htmlContent);
-                logger.info("Email {} enviado com sucesso para {} (consulta: {})", tipoEvento, to, consultaId);
-                return;
-                
-            } catch (Exception e) {
-                ultimoErro = e;
-                tentativas++;
-                logger.warn("Tentativa {} de {} falhou para email {} (consulta: {}): {}", 
-                    tentativas, retryAttempts, tipoEvento, consultaId, e.getMessage());
-                
-                if (tentativas < retryAttempts) {
-                    try {
-                        Thread.sleep(2000 * tentativas); // Backoff exponencial
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                }
+        resultado.whenComplete((ok, erro) -> {
+            if (erro == null) {
+                latencia.registrar(LatenciaEstagios.Estagio.ENVIO_SMTP, envio.tipoEvento(), inicio);
+                latencia.registrarDesde(LatenciaEstagios.Estagio.PONTA_A_PONTA, envio.tipoEvento(), envio.origemMs());
+                logger.info("Email {} enviado com sucesso para {} (consulta: {})", envio.tipoEvento(), envio.to(), envio.consultaId());
+            } else {
+                tratarFalhaEnvio(envio, tentativa, erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro);
             }
+        });
+    }
+    
+    private void tratarFalhaEnvio(EnvioEmail envio, int tentativa, Throwable e) {
+        boolean transitoria = SmtpFalhaClassifier.isTransitoria(e);
+        
+        if (!transitoria) {
+            logger.error("Falha permanente ao enviar email {} (consulta: {}), sem nova tentativa: {}", 
+                envio.tipoEvento(), envio.consultaId(), e.getMessage());
+            return;
+        }
+        if (tentativa >= retryAttempts) {
+            logger.error("Falha ao enviar email {} após {} tentativas (consulta: {}): {}", 
+                envio.tipoEvento(), retryAttempts, envio.consultaId(), e.getMessage());
+            return;
         }
         
-        logger.error("Falha ao enviar email {} após {} tentativas (consulta: {}): {}", 
-            tipoEvento, retryAttempts, consultaId, ultimoErro != null ? ultimoErro.getMessage() : "Erro desconhecido");
+        long delayMs = calcularBackoff(tentativa);
+        logger.warn("Tentativa {} de {} falhou para email {} (consulta: {}), nova tentativa em {} ms: {}", 
+            tentativa, retryAttempts, envio.tipoEvento(), envio.consultaId(), delayMs, e.getMessage());
+        try {
+            despacho.resubmeter(envio.prioridade(), () -> tentarEnvio(envio, tentativa + 1), delayMs);
+        } catch (RejectedExecutionException re) {
+            logger.error("Não foi possível agendar nova tentativa do email {} (consulta: {}): serviço encerrando", 
+                envio.tipoEvento(), envio.consultaId());
+        }
+    }
+    
+    // Backoff exponencial (base * 2^(tentativa-1), limitado) com jitter: metade fixa e metade aleatória
+    private long calcularBackoff(int tentativa) {
+        long exponencial = retryBaseDelayMs << Math.min(tentativa - 1, 20);
+        long limitado = Math.min(exponencial, retryMaxDelayMs);
+        long metade = limitado / 2;
+        return metade + ThreadLocalRandom.current().nextLong(metade + 1);
     }
     
-    private void enviarEmail(String to, String subject, String htmlContent) throws MessagingException {
+    private MimeMessage criarMensagem(String to, String subject, String htmlContent) throws MessagingException {
         try {
             MimeMessage message = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
@@ -145,157 +234,12 @@ public class EmailService {
             helper.setSubject(subject);
             helper.setText(htmlContent, true);
             
-            mailSender.send(message);
+            return message;
         } catch (UnsupportedEncodingException e) {
             throw new MessagingException("Erro de encoding UTF-8", e);
         }
     }
     
-    private String gerarTemplateEmailHtml(NotificacaoRequest notificacao, String tipoEvento) {
-        String corPrimaria = getCorPorTipoEvento(tipoEvento);
-        String icone = getIconePorTipoEvento(tipoEvento);
-        
-        return String.format("""
-            <!DOCTYPE html>
-            <html lang="pt-BR">
-            <head>
-                <meta charset="UTF-8">
-                <meta name="viewport" content="width=device-width, initial-scale=1.0">
-                <title>%s</title>
-                <style>
-                    body { font-family: -apple-system, BlinkMacSystemFont, 'Segoe UI', Roboto, sans-serif; margin: 0; padding: 0; background-color: #f8f9fa; }
-                    .container { max-width: 600px; margin: 0 auto; background-color: #ffffff; border-radius: 8px; overflow: hidden; box-shadow: 0 4px 6px rgba(0, 0, 0, 0.1); }
-                    .header { background: linear-gradient(135deg, %s 0%%, %s 100%%); color: white; padding: 30px; text-align: center; }
-                    .header h1 { margin: 0; font-size: 24px; font-weight: 600; }
-                    .content { padding: 30px; line-height: 1.6; color: #333333; }
-                    .info-card { background-color: #f8f9fa; border-left: 4px solid %s; padding: 20px; margin: 20px 0; border-radius: 4px; }
-                    .info-row { display: flex; justify-content: space-between; margin: 10px 0; padding: 8px 0; border-bottom: 1px solid #e9ecef; }
-                    .info-row:last-child { border-bottom: none; }
-                    .info-label { font-weight: 600; color: #495057; }
-                    .info-value { color: #212529; }
-                    .footer { background-color: #f8f9fa; padding: 20px; text-align: center; color: #6c757d; font-size: 14px; }
-                    .button { display: inline-block; background-color: %s; color: white; padding: 12px 24px; text-decoration: none; border-radius: 6px; font-weight: 500; margin: 20px 0; }
-                    .alert { background-color: #fff3cd; border: 1px solid #ffeaa7; color: #856404; padding: 15px; border-radius: 4px; margin: 15px 0; }
-                    @media (max-width: 600px) { .container { margin: 10px; border-radius: 0; } .header, .content { padding: 20px; } .info-row { flex-direction: column; } }
-                </style>
-            </head>
-            <body>
-                <div class="container">
-                    <div class="header">
-                        <h1>%s %s</h1>
-                        <p>Olá, %s!</p>
-                    </div>
-                    
-                    <div class="content">
-                        <div class="info-card">
-                            <div class="info-row">
-                                <span class="info-label">📅 Data da Consulta:</span>
-                                <span class="info-value">%s</span>
-                            </div>
-                            <div class="info-row">
-                                <span class="info-label">⏰ Horário:</span>
-                                <span class="info-value">%s</span>
-                            </div>
-                            <div class="info-row">
-                                <span class="info-label">👨‍⚕️ Médico:</span>
-                                <span class="info-value">%s</span>
-                            </div>
-                            <div class="info-row">
-                                <span class="info-label">📍 Local:</span>
-                                <span class="info-value">%s</span>
-                            </div>
-                            <div class="info-row">
-                                <span class="info-label">📞 Telefone:</span>
-                                <span class="info-value">%s</span>
-                            </div>
-                            <div class="info-row">
-                                <span class="info-label">🏥 Clínica:</span>
-                                <span class="info-value">%s</span>
-                            </div>
-                        </div>
-                        
-                        %s
-                        
-                        <div class="alert">
-                            <strong>⚠️ Importante:</strong> Em caso de dúvidas ou necessidade de reagendamento, entre em contato conosco com antecedência.
-                        </div>
-                    </div>
-                    
-                    <div class="footer">
-                        <p>Este é um email automático do sistema MedSync.</p>
-                        <p>Para sua segurança, não responda a este email.</p>
-                        <p>© 2025 MedSync - Transformando o cuidado em saúde</p>
-                    </div>
-                </div>
-            </body>
-            </html>
-            """,
-            notificacao.titulo(),
-            corPrimaria, escurecerCor(corPrimaria),
-            corPrimaria,
-            corPrimaria,
-            icone, notificacao.titulo(),
-            notificacao.pacienteNome(),
-            formatarDataHora(notificacao.dataHora().toString()),
-            formatarHora(notificacao.dataHora().toString()),
-            notificacao.medicoNome(),
-            "MedSync Clínica - Centro Médico",
-            notificacao.medicoTelefone(),
-            "MedSync Clínica",
-            gerarMensagemPersonalizada(tipoEvento)
-        );
-    }
-    
-    private String getCorPorTipoEvento(String tipoEvento) {
-        return switch (tipoEvento.toLowerCase()) {
-            case "criada" -> "#28a745";
-            case "editada" -> "#ffc107";
-            case "lembrete" -> "#17a2b8";
-            default -> "#007bff";
-        };
-    }
-    
-    private String getIconePorTipoEvento(String tipoEvento) {
-        return switch (tipoEvento.toLowerCase()) {
-            case "criada" -> "✅";
-            case "editada" -> "🔄";
-            case "lembrete" -> "⏰";
-            default -> "📧";
-        };
-    }
-    
-    private String escurecerCor(String cor) {
-        // Simplificação - em produção usar uma biblioteca de cores
-        return cor.replace("#28a745", "#1e7e34")
-                  .replace("#ffc107", "#e0a800")
-                  .replace("#17a2b8", "#117a8b")
-                  .replace("#007bff", "#0056b3");
-    }
-    
-    private String formatarDataHora(String dataHora) {
-        try {
-            java.time.LocalDateTime dateTime = java.time.LocalDateTime.parse(dataHora);
-            return dateTime.format(java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy"));
-        } catch (Exception e) {
-            return dataHora;
-        }
-    }
-    
-    private String formatarHora(String dataHora) {
-        try {
-            java.time.LocalDateTime dateTime = java.time.LocalDateTime.parse(dataHora);
-            return dateTime.format(java.time.format.DateTimeFormatter.ofPattern("HH:mm"));
-        } catch (Exception e) {
-            return dataHora;
-        }
-    }
-    
-    private String gerarMensagemPersonalizada(String tipoEvento) {
-        return switch (tipoEvento.toLowerCase()) {
-            case "criada" -> "<p>Sua consulta foi <strong>agendada com sucesso</strong>! Chegue com 15 minutos de antecedência.</p>";
-            case "editada" -> "<p>Sua consulta foi <strong>atualizada</strong>. Verifique os novos dados acima.</p>";
-            case "lembrete" -> "<p><strong>Lembrete:</strong> Sua consulta é hoje! Não esqueça de trazer seus documentos.</p>";
-            default -> "";
-        };
-    }
+    private record EnvioEmail(EmailDespachoPriorizado.Prioridade prioridade, String to, String subject,
+                              String htmlContent, String tipoEvento, String consultaId, long origemMs) {}
 }
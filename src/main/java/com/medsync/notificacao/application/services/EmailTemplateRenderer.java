@@ -0,0 +1,9 @@
+package com.medsync.notificacao.application.services;
+
+import com.medsync.notificacao.presentation.dto.NotificacaoRequest;
+
+// Motor do HTML dos emails, escolhido por app.notificacao.templates.html-engine
+public interface EmailTemplateRenderer {
+
+    String renderizar(NotificacaoRequest notificacao, String tipoEvento);
+}
@@ -0,0 +1,61 @@
+package com.medsync.notificacao.application.services;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Formatação de data/hora compartilhada pelos templates. Os formatters são imutáveis e
+// criados uma única vez; como as consultas se concentram em poucos horários (slots),
+// a data, a hora e o dia da semana já formatados ficam memorizados por slot.
+@Component
+public class FormatadorDataHora {
+
+    public static final Locale LOCALE = Locale.forLanguageTag("pt-BR");
+
+    private static final DateTimeFormatter DATA_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy", LOCALE);
+    private static final DateTimeFormatter HORA_FORMATTER = DateTimeFormatter.ofPattern("HH:mm", LOCALE);
+    private static final DateTimeFormatter DIA_SEMANA_FORMATTER = DateTimeFormatter.ofPattern("EEEE", LOCALE);
+
+    // Limite de slots memorizados; ao estourar o cache é simplesmente reiniciado
+    private static final int MAX_SLOTS = 4096;
+
+    private static final SlotFormatado VAZIO = new SlotFormatado("", "", "");
+
+    public record SlotFormatado(String data, String hora, String diaSemana) {}
+
+    private final Map<LocalDateTime, SlotFormatado> slots = new ConcurrentHashMap<>();
+
+    // Converte o texto ISO do evento uma única vez; nulo ou vazio vira null
+    public LocalDateTime interpretar(String dataHora) {
+        if (dataHora == null || dataHora.isBlank()) {
+            return null;
+        }
+        return LocalDateTime.parse(dataHora);
+    }
+
+    public SlotFormatado formatar(LocalDateTime dataHora) {
+        if (dataHora == null) {
+            return VAZIO;
+        }
+        // Só minutos aparecem na mensagem: segundos e nanos não criam slots distintos
+        LocalDateTime slot = dataHora.truncatedTo(ChronoUnit.MINUTES);
+        SlotFormatado formatado = slots.get(slot);
+        if (formatado == null) {
+            if (slots.size() >= MAX_SLOTS) {
+                slots.clear();
+            }
+            formatado = slots.computeIfAbsent(slot, s -> new SlotFormatado(
+                s.format(DATA_FORMATTER), s.format(HORA_FORMATTER), s.format(DIA_SEMANA_FORMATTER)));
+        }
+        return formatado;
+    }
+
+    int slotsMemorizados() {
+        return slots.size();
+    }
+}
@@ -0,0 +1,286 @@
+package com.medsync.notificacao.application.services;
+
+import com.medsync.notificacao.infrastructure.events.NotificacaoClientePublisher;
+import com.medsync.notificacao.infrastructure.scheduling.ContatoConsulta;
+import com.medsync.notificacao.infrastructure.scheduling.LembreteJournal;
+import com.medsync.notificacao.infrastructure.scheduling.RodaTemporizacao;
+import com.medsync.notificacao.presentation.dto.NotificacaoRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Lembretes de consulta: para cada consulta criada/editada agenda um LEMBRETE em cada
+// antecedência de app.notificacao.lembrete-horas. Os disparos ficam numa roda de temporização
+// hierárquica (inserção e cancelamento O(1), sem varrer os pendentes) avançada a cada tick.
+// Agendamentos e encerramentos vão para o LembreteJournal, de onde a roda é reconstruída no restart.
+@Service
+public class LembreteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LembreteService.class);
+
+    public static final String TIPO_LEMBRETE = "LEMBRETE";
+
+    // Item da roda: referência compacta, os dados da consulta ficam no índice por consultaId
+    public record Lembrete(UUID consultaId, int indiceAntecedencia, int horas, long instanteMs) {}
+
+    private record Substituicao(int cancelados, int agendados) {}
+
+    // Só os contatos e a data: título, mensagem e corpo da notificação original não ficam
+    // retidos até o último lembrete disparar
+    private static final class LembretesConsulta {
+        private final ContatoConsulta contato;
+        private final List<RodaTemporizacao.Agendamento<Lembrete>> agendamentos = new ArrayList<>();
+
+        private LembretesConsulta(ContatoConsulta contato) {
+            this.contato = contato;
+        }
+    }
+
+    private final EmailService emailService;
+    private final NotificacaoClientePublisher clientePublisher;
+    private final NotificacaoTemplateService templateService;
+    private final LembreteJournal journal;
+    private final boolean enabled;
+    private final ZoneId zona;
+    private final List<Integer> antecedenciasHoras;
+    private final RodaTemporizacao<Lembrete> roda;
+    private final Map<UUID, LembretesConsulta> porConsulta = new ConcurrentHashMap<>();
+    private final Counter disparados;
+    private final Counter reagendados;
+    private final Counter suprimidos;
+
+    public LembreteService(@Lazy EmailService emailService,
+                           NotificacaoClientePublisher clientePublisher,
+                           NotificacaoTemplateService templateService,
+                           LembreteJournal journal,
+                           MeterRegistry meterRegistry,
+                           Environment environment,
+                           @Value("${app.notificacao.lembrete.enabled:true}") boolean enabled,
+                           @Value("${app.notificacao.lembrete.tick-ms:1000}") long tickMs,
+                           @Value("${app.notificacao.lembrete.zona:America/Sao_Paulo}") String zona) {
+        this.emailService = emailService;
+        this.clientePublisher = clientePublisher;
+        this.templateService = templateService;
+        this.journal = journal;
+        this.enabled = enabled;
+        this.zona = ZoneId.of(zona);
+        // Lista YAML ([24, 2, 1]) não é resolvida por @Value
+        this.antecedenciasHoras = Binder.get(environment)
+            .bind("app.notificacao.lembrete-horas", Bindable.listOf(Integer.class))
+            .orElse(List.of(24, 2, 1));
+        this.roda = new RodaTemporizacao<>(tickMs, System.currentTimeMillis());
+
+        Gauge.builder("notificacao.lembretes.pendentes", roda, RodaTemporizacao::pendentes)
+            .description("Lembretes agendados aguardando disparo")
+            .register(meterRegistry);
+        this.disparados = Counter.builder("notificacao.lembretes.disparados")
+            .description("Lembretes de consulta disparados")
+            .register(meterRegistry);
+        this.reagendados = Counter.builder("notificacao.lembretes.reagendados")
+            .description("Lembretes agendados para a nova data de uma consulta remarcada")
+            .register(meterRegistry);
+        this.suprimidos = Counter.builder("notificacao.lembretes.suprimidos")
+            .description("Lembretes pendentes descartados por cancelamento ou remarcação da consulta")
+            .register(meterRegistry);
+
+        logger.info("Lembretes {} - antecedências {} h", enabled ? "habilitados" : "desabilitados", antecedenciasHoras);
+        if (enabled) {
+            restaurar();
+        }
+    }
+
+    // Registra (ou substitui) os lembretes da consulta a partir da notificação gerada para ela
+    public void agendarLembretes(NotificacaoRequest notificacao) {
+        if (!enabled || notificacao.dataHora() == null) {
+            return;
+        }
+        substituir(notificacao);
+    }
+
+    // Edição sem mudança de data: só agenda se a consulta ainda não tem lembretes pendentes
+    public void agendarSeAusente(NotificacaoRequest notificacao) {
+        if (!enabled || notificacao.dataHora() == null || porConsulta.containsKey(notificacao.consultaId())) {
+            return;
+        }
+        substituir(notificacao);
+    }
+
+    // Nova data: os pendentes são localizados pelo índice por consultaId, sem varrer a roda
+    public void reagendarLembretes(NotificacaoRequest notificacao) {
+        if (!enabled || notificacao.dataHora() == null) {
+            return;
+        }
+        Substituicao substituicao = substituir(notificacao);
+        reagendados.increment(substituicao.agendados());
+        // Pendentes que não cabem antes da nova data (antecedência já passou) deixam de existir
+        int descartados = Math.max(0, substituicao.cancelados() - substituicao.agendados());
+        suprimidos.increment(descartados);
+        logger.info("{} lembretes reagendados e {} suprimidos para consulta {}",
+            substituicao.agendados(), descartados, notificacao.consultaId());
+    }
+
+    public void cancelarLembretes(UUID consultaId) {
+        if (!enabled) {
+            return;
+        }
+        LembretesConsulta lembretes = porConsulta.remove(consultaId);
+        if (lembretes == null) {
+            return;
+        }
+        int cancelados = cancelar(lembretes);
+        suprimidos.increment(cancelados);
+        logger.info("{} lembretes suprimidos para consulta cancelada {}", cancelados, consultaId);
+    }
+
+    // Troca os lembretes da consulta pelos calculados a partir da notificação; devolve quantos
+    // pendentes anteriores foram cancelados e quantos novos foram agendados
+    private Substituicao substituir(NotificacaoRequest notificacao) {
+        long consultaMs = notificacao.dataHora().atZone(zona).toInstant().toEpochMilli();
+        long agora = System.currentTimeMillis();
+
+        ContatoConsulta contato = ContatoConsulta.de(notificacao);
+        LembretesConsulta lembretes = new LembretesConsulta(contato);
+        LembretesConsulta anteriores = porConsulta.put(notificacao.consultaId(), lembretes);
+        int cancelados = anteriores != null ? cancelar(anteriores) : 0;
+
+        int agendados;
+        synchronized (lembretes) {
+            long dadosOffset = -1;
+            for (int i = 0; i < antecedenciasHoras.size(); i++) {
+                int horas = antecedenciasHoras.get(i);
+                long instanteMs = consultaMs - horas * 3_600_000L;
+                if (instanteMs <= agora) {
+                    continue;
+                }
+                if (dadosOffset < 0) {
+                    dadosOffset = journal.registrarConsulta(contato);
+                }
+                Lembrete lembrete = new Lembrete(notificacao.consultaId(), i, horas, instanteMs);
+                journal.registrarAgendamento(lembrete.consultaId(), i, horas, instanteMs, dadosOffset);
+                lembretes.agendamentos.add(roda.agendar(lembrete, instanteMs));
+            }
+            agendados = lembretes.agendamentos.size();
+        }
+        if (agendados == 0) {
+            porConsulta.remove(notificacao.consultaId(), lembretes);
+        }
+        logger.debug("{} lembretes agendados para consulta {}", agendados, notificacao.consultaId());
+        return new Substituicao(cancelados, agendados);
+    }
+
+    @Scheduled(fixedRateString = "${app.notificacao.lembrete.tick-ms:1000}")
+    public void avancar() {
+        if (!enabled) {
+            return;
+        }
+        for (Lembrete lembrete : roda.avancar(System.currentTimeMillis())) {
+            try {
+                disparar(lembrete);
+            } catch (Exception e) {
+                logger.error("Erro ao disparar lembrete da consulta {}", lembrete.consultaId(), e);
+            }
+        }
+    }
+
+    public int pendentes() {
+        return roda.pendentes();
+    }
+
+    private void disparar(Lembrete lembrete) {
+        // A roda já entregou o lembrete: um cancelamento ou reagendamento concorrente não consegue
+        // mais removê-lo, então só dispara se ele ainda pertence à entrada atual da consulta
+        LembretesConsulta lembretes = porConsulta.get(lembrete.consultaId());
+        boolean vigente = false;
+        if (lembretes != null) {
+            synchronized (lembretes) {
+                vigente = lembretes.agendamentos.removeIf(agendamento -> agendamento.valor() == lembrete);
+                if (lembretes.agendamentos.isEmpty()) {
+                    porConsulta.remove(lembrete.consultaId(), lembretes);
+                }
+            }
+        }
+        if (!vigente) {
+            suprimidos.increment();
+            journal.registrarEncerramento(lembrete.consultaId(), lembrete.indiceAntecedencia(), lembrete.instanteMs());
+            logger.info("Lembrete de {} h suprimido para consulta {} - substituído durante o disparo",
+                lembrete.horas(), lembrete.consultaId());
+            return;
+        }
+
+        try {
+            NotificacaoRequest notificacao = criarNotificacaoLembrete(lembretes.contato, lembrete.horas());
+            clientePublisher.publicar(notificacao);
+            emailService.enviarEmailLembrete(notificacao, lembrete.horas(), lembrete.instanteMs());
+            disparados.increment();
+            logger.info("Lembrete de {} h disparado para consulta {}", lembrete.horas(), lembrete.consultaId());
+        } finally {
+            journal.registrarEncerramento(lembrete.consultaId(), lembrete.indiceAntecedencia(), lembrete.instanteMs());
+        }
+    }
+
+    // Cancelamento O(1) por handle; devolve quantos ainda estavam pendentes na roda
+    private int cancelar(LembretesConsulta lembretes) {
+        synchronized (lembretes) {
+            int cancelados = 0;
+            for (RodaTemporizacao.Agendamento<Lembrete> agendamento : lembretes.agendamentos) {
+                if (roda.cancelar(agendamento)) {
+                    Lembrete lembrete = agendamento.valor();
+                    journal.registrarEncerramento(lembrete.consultaId(), lembrete.indiceAntecedencia(), lembrete.instanteMs());
+                    cancelados++;
+                }
+            }
+            lembretes.agendamentos.clear();
+            return cancelados;
+        }
+    }
+
+    // Reconstrói a roda a partir do journal; atrasados (serviço fora do ar) disparam no primeiro tick
+    private void restaurar() {
+        List<LembreteJournal.LembreteRestaurado> restaurados = journal.restaurar();
+        for (LembreteJournal.LembreteRestaurado restaurado : restaurados) {
+            LembretesConsulta lembretes = porConsulta.computeIfAbsent(restaurado.consulta().consultaId(),
+                consultaId -> new LembretesConsulta(restaurado.consulta()));
+            Lembrete lembrete = new Lembrete(restaurado.consulta().consultaId(), restaurado.indiceAntecedencia(),
+                restaurado.horas(), restaurado.instanteMs());
+            lembretes.agendamentos.add(roda.agendar(lembrete, lembrete.instanteMs()));
+        }
+        if (!restaurados.isEmpty()) {
+            logger.info("{} lembretes restaurados do journal para {} consultas", restaurados.size(), porConsulta.size());
+        }
+    }
+
+    private NotificacaoRequest criarNotificacaoLembrete(ContatoConsulta consulta, int horas) {
+        NotificacaoTemplateService.NotificacaoTemplate template = templateService.gerarTemplateLembrete(consulta, horas);
+        return new NotificacaoRequest(
+            consulta.consultaId(),
+            consulta.pacienteNome(),
+            consulta.pacienteEmail(),
+            consulta.pacienteTelefone(),
+            consulta.medicoNome(),
+            consulta.medicoEmail(),
+            consulta.medicoTelefone(),
+            consulta.dataHora(),
+            template.tipoNotificacao(),
+            template.titulo(),
+            template.mensagem(),
+            LocalDateTime.now()
+        );
+    }
+}
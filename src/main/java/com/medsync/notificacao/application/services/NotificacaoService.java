@@ -3,16 +3,19 @@ package com.medsync.notificacao.application.services;
 import com.medsync.notificacao.domain.events.ConsultaCriadaNotificacaoEvent;
 import com.medsync.notificacao.domain.events.ConsultaEditadaNotificacaoEvent;
 import com.medsync.notificacao.infrastructure.clients.CadastroServiceClient;
+import com.medsync.notificacao.infrastructure.events.NotificacaoClientePublisher;
+import com.medsync.notificacao.infrastructure.idempotencia.IdempotenciaStore;
+import com.medsync.notificacao.infrastructure.metrics.LatenciaEstagios;
 import com.medsync.notificacao.infrastructure.events.dto.NotificacaoConsultaPayload;
 import com.medsync.notificacao.presentation.dto.NotificacaoRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -20,32 +23,50 @@ public class NotificacaoService {
     
     private static final Logger logger = LoggerFactory.getLogger(NotificacaoService.class);
     
-    private final RabbitTemplate rabbitTemplate;
+    private static final String STATUS_CANCELADA = "CANCELADA";
+    
+    private final NotificacaoClientePublisher clientePublisher;
     private final EmailService emailService;
     private final NotificacaoTemplateService templateService;
     private final CadastroServiceClient cadastroServiceClient;
-    
-    @Value("${app.rabbitmq.exchange-consultas}")
-    private String exchangeConsultas;
+    private final IdempotenciaStore idempotenciaStore;
+    private final LembreteService lembreteService;
+    private final LatenciaEstagios latencia;
     
     @Value("${app.rabbitmq.routing-key-cliente}")
     private String routingKeyCliente;
     
-    public NotificacaoService(RabbitTemplate rabbitTemplate,
+    public NotificacaoService(NotificacaoClientePublisher clientePublisher,
                              @Lazy EmailService emailService, 
                              NotificacaoTemplateService templateService,
-                             CadastroServiceClient cadastroServiceClient) {
-        this.rabbitTemplate = rabbitTemplate;
+                             CadastroServiceClient cadastroServiceClient,
+                             IdempotenciaStore idempotenciaStore,
+                             LembreteService lembreteService,
+                             LatenciaEstagios latencia) {
+        this.clientePublisher = clientePublisher;
         this.emailService = emailService;
         this.templateService = templateService;
         this.cadastroServiceClient = cadastroServiceClient;
+        this.idempotenciaStore = idempotenciaStore;
+        this.lembreteService = lembreteService;
+        this.latencia = latencia;
     }
     
     public void processarConsultaCriada(ConsultaCriadaNotificacaoEvent evento) {
+        boolean registrado = false;
         try {
             logger.info("Processando notificação de consulta criada: {}", evento.consultaId());
             
-            var template = templateService.gerarTemplateConsultaCriada(evento);
+            if (!idempotenciaStore.registrarSeNovo(evento.consultaId(), evento.evento(), evento.timestamp())) {
+                logger.info("Evento de consulta criada já processado, ignorando reentrega: {}", evento.consultaId());
+                return;
+            }
+            registrado = true;
+            
+            LocalDateTime dataHora = LocalDateTime.parse(evento.dataHora());
+            long inicioTemplate = System.nanoTime();
+            var template = templateService.gerarTemplateConsultaCriada(evento, dataHora);
+            latencia.registrar(LatenciaEstagios.Estagio.TEMPLATE_TEXTO, evento.evento(), inicioTemplate);
             
             NotificacaoRequest notificacao = new NotificacaoRequest(
                 UUID.fromString(evento.consultaId()),
@@ -55,30 +76,46 @@ public class NotificacaoService {
                 evento.medicoNome() != null ? evento.medicoNome() : "Médico",
                 evento.medicoEmail() != null ? evento.medicoEmail() : "",
                 evento.medicoTelefone() != null ? evento.medicoTelefone() : "",
-                LocalDateTime.parse(evento.dataHora()),
+                dataHora,
                 template.tipoNotificacao(),
                 template.titulo(),
                 template.mensagem(),
                 LocalDateTime.now()
             );
             
-            String routingKey = "notificacao.cliente." + evento.consultaId();
-            rabbitTemplate.convertAndSend(exchangeConsultas, routingKey, notificacao);
+            clientePublisher.publicar(notificacao);
             
-            emailService.enviarEmailConsultaCriada(notificacao);
+            emailService.enviarEmailConsultaCriada(notificacao, latencia.instanteEvento(evento.timestamp()));
             
+            lembreteService.agendarLembretes(notificacao);
+            
+            // Gravada antes do retorno ao listener, ou seja, antes do ack da mensagem
+            idempotenciaStore.confirmar(evento.consultaId(), evento.evento(), evento.timestamp());
             logger.info("Notificação de consulta criada processada com sucesso: {}", evento.consultaId());
             
         } catch (Exception e) {
+            if (registrado) {
+                idempotenciaStore.liberar(evento.consultaId(), evento.evento(), evento.timestamp());
+            }
             logger.error("Erro ao processar notificação de consulta criada: {}", evento.consultaId(), e);
         }
     }
     
     public void processarConsultaEditada(ConsultaEditadaNotificacaoEvent evento) {
+        boolean registrado = false;
         try {
             logger.info("Processando notificação de consulta editada: {}", evento.consultaId());
             
-            var template = templateService.gerarTemplateConsultaEditada(evento);
+            if (!idempotenciaStore.registrarSeNovo(evento.consultaId(), evento.evento(), evento.timestamp())) {
+                logger.info("Evento de consulta editada já processado, ignorando reentrega: {}", evento.consultaId());
+                return;
+            }
+            registrado = true;
+            
+            LocalDateTime novaDataHora = LocalDateTime.parse(evento.novaDataHora());
+            long inicioTemplate = System.nanoTime();
+            var template = templateService.gerarTemplateConsultaEditada(evento, novaDataHora);
+            latencia.registrar(LatenciaEstagios.Estagio.TEMPLATE_TEXTO, evento.evento(), inicioTemplate);
             
             NotificacaoRequest notificacao = new NotificacaoRequest(
                 UUID.fromString(evento.consultaId()),
@@ -88,23 +125,43 @@ public class NotificacaoService {
                 evento.medicoNome() != null ? evento.medicoNome() : "Médico",
                 evento.medicoEmail() != null ? evento.medicoEmail() : "",
                 evento.medicoTelefone() != null ? evento.medicoTelefone() : "",
-                LocalDateTime.parse(evento.novaDataHora()),
+                novaDataHora,
                 template.tipoNotificacao(),
                 template.titulo(),
                 template.mensagem(),
                 LocalDateTime.now()
             );
             
-            String routingKey = "notificacao.cliente." + evento.consultaId();
-            rabbitTemplate.convertAndSend(exchangeConsultas, routingKey, notificacao);
+            clientePublisher.publicar(notificacao);
             
-            emailService.enviarEmailConsultaEditada(notificacao);
+            emailService.enviarEmailConsultaEditada(notificacao, latencia.instanteEvento(evento.timestamp()));
             
+            atualizarLembretes(evento, notificacao);
+            
+            // Gravada antes do retorno ao listener, ou seja, antes do ack da mensagem
+            idempotenciaStore.confirmar(evento.consultaId(), evento.evento(), evento.timestamp());
             logger.info("Notificação de consulta editada processada com sucesso: {}", evento.consultaId());
             
         } catch (Exception e) {
+            if (registrado) {
+                idempotenciaStore.liberar(evento.consultaId(), evento.evento(), evento.timestamp());
+            }
             logger.error("Erro ao processar notificação de consulta editada: {}", evento.consultaId(), e);
         }
     }
     
+    private void atualizarLembretes(ConsultaEditadaNotificacaoEvent evento, NotificacaoRequest notificacao) {
+        Map<String, Object> alteracoes = evento.alteracoes();
+        Object statusAlterado = alteracoes != null ? alteracoes.get("status") : null;
+        
+        if (STATUS_CANCELADA.equalsIgnoreCase(evento.status())
+                || (statusAlterado != null && STATUS_CANCELADA.equalsIgnoreCase(statusAlterado.toString()))) {
+            lembreteService.cancelarLembretes(notificacao.consultaId());
+        } else if (alteracoes != null && alteracoes.containsKey("dataHora")) {
+            lembreteService.reagendarLembretes(notificacao);
+        } else {
+            lembreteService.agendarSeAusente(notificacao);
+        }
+    }
+    
 }
@@ -2,12 +2,14 @@ package com.medsync.notificacao.application.services;
 
 import com.medsync.notificacao.domain.events.ConsultaCriadaNotificacaoEvent;
 import com.medsync.notificacao.domain.events.ConsultaEditadaNotificacaoEvent;
+import com.medsync.notificacao.infrastructure.scheduling.ContatoConsulta;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.Map;
 
 @Service
@@ -15,122 +17,134 @@ public class NotificacaoTemplateService {
 
     private static final Logger logger = LoggerFactory.getLogger(NotificacaoTemplateService.class);
     
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    // Templates de texto em app.notificacao.template-path, parseados uma vez para o cache do Thymeleaf
+    private static final String TEMPLATE_CONSULTA_CRIADA = "consulta-criada.txt";
+    private static final String TEMPLATE_CONSULTA_EDITADA = "consulta-editada.txt";
+    private static final String TEMPLATE_LEMBRETE = "lembrete.txt";
+    
+    private final ITemplateEngine templateEngine;
+    private final FormatadorDataHora formatador;
+    
+    public NotificacaoTemplateService(ITemplateEngine templateEngine, FormatadorDataHora formatador) {
+        this.templateEngine = templateEngine;
+        this.formatador = formatador;
+    }
 
     public NotificacaoTemplate gerarTemplateConsultaCriada(ConsultaCriadaNotificacaoEvent evento) {
+        return gerarTemplateConsultaCriada(evento, formatador.interpretar(evento.dataHora()));
+    }
+    
+    // Variante para quem já converteu a data do evento, evitando um segundo parse
+    public NotificacaoTemplate gerarTemplateConsultaCriada(ConsultaCriadaNotificacaoEvent evento, LocalDateTime dataHora) {
         logger.debug("Gerando template para consulta criada: {}", evento.consultaId());
         return gerarTemplateConsultaCriada(evento.pacienteNome(), evento.medicoNome(), 
-                                          evento.medicoEspecialidade(), LocalDateTime.parse(evento.dataHora()), evento.observacoes());
+                                          evento.medicoEspecialidade(), dataHora, evento.observacoes());
     }
     
     public NotificacaoTemplate gerarTemplateConsultaEditada(ConsultaEditadaNotificacaoEvent evento) {
+        return gerarTemplateConsultaEditada(evento, formatador.interpretar(evento.novaDataHora()));
+    }
+    
+    public NotificacaoTemplate gerarTemplateConsultaEditada(ConsultaEditadaNotificacaoEvent evento, LocalDateTime novaDataHora) {
         logger.debug("Gerando template para consulta editada: {}", evento.consultaId());
         return gerarTemplateConsultaEditada(evento.pacienteNome(), evento.medicoNome(), 
-                                           evento.medicoEspecialidade(), evento.novaDataHora(), 
+                                           evento.medicoEspecialidade(), novaDataHora, 
                                            evento.observacoes(), evento.alteracoes());
     }
 
+    public NotificacaoTemplate gerarTemplateLembrete(ContatoConsulta consulta, int horasAntecedencia) {
+        logger.debug("Gerando template de lembrete de {} h: {}", horasAntecedencia, consulta.consultaId());
+        String antecedencia = horasAntecedencia == 1 ? "1 hora" : horasAntecedencia + " horas";
+        String titulo = "Lembrete: sua consulta é em " + antecedencia;
+        
+        FormatadorDataHora.SlotFormatado slot = formatador.formatar(consulta.dataHora());
+        
+        Context context = new Context(FormatadorDataHora.LOCALE);
+        context.setVariable("pacienteNome", consulta.pacienteNome());
+        context.setVariable("medicoNome", consulta.medicoNome());
+        context.setVariable("antecedencia", antecedencia);
+        context.setVariable("data", slot.data());
+        context.setVariable("hora", slot.hora());
+        context.setVariable("diaSemana", slot.diaSemana());
+        
+        String mensagem = templateEngine.process(TEMPLATE_LEMBRETE, context);
+        
+        return new NotificacaoTemplate(titulo, mensagem, "LEMBRETE");
+    }
+
     private NotificacaoTemplate gerarTemplateConsultaCriada(String pacienteNome, String medicoNome, 
-                                                           String medicoEspecialidade, java.time.LocalDateTime dataHora, String observacoes) {
+                                                           String medicoEspecialidade, LocalDateTime dataHora, String observacoes) {
         String titulo = "✅ Consulta Agendada com Sucesso";
         
-        String mensagem = String.format("""
-            Olá, %s!
-            
-            Sua consulta foi agendada com sucesso:
-            
-            📅 Data: %s
-            ⏰ Horário: %s
-            👨‍⚕️ Médico: %s
-            🏥 Especialidade: %s
-            %s
-            
-            ⚠️ Importante:
-            • Chegue com 15 minutos de antecedência
-            • Traga um documento com foto
-            • Em caso de desistência, cancele com pelo menos 24h de antecedência
-            
-            Em caso de dúvidas, entre em contato conosco.
-            
-            Atenciosamente,
-            Equipe MedSync
-            """,
-            pacienteNome,
-            dataHora.format(DATE_FORMATTER),
-            dataHora.format(DateTimeFormatter.ofPattern("HH:mm")),
-            medicoNome,
-            medicoEspecialidade != null ? medicoEspecialidade : "Não informada",
-            observacoes != null && !observacoes.trim().isEmpty() ? 
-                "📝 Observações: " + observacoes + "\n" : ""
-        );
+        FormatadorDataHora.SlotFormatado slot = formatador.formatar(dataHora);
+        
+        Context context = new Context(FormatadorDataHora.LOCALE);
+        context.setVariable("pacienteNome", pacienteNome);
+        context.setVariable("data", slot.data());
+        context.setVariable("hora", slot.hora());
+        context.setVariable("diaSemana", slot.diaSemana());
+        context.setVariable("medicoNome", medicoNome);
+        context.setVariable("especialidade", medicoEspecialidade != null ? medicoEspecialidade : "Não informada");
+        context.setVariable("observacoes", observacoes != null && !observacoes.trim().isEmpty() ? observacoes : null);
+        
+        String mensagem = templateEngine.process(TEMPLATE_CONSULTA_CRIADA, context);
 
         return new NotificacaoTemplate(titulo, mensagem, "CONSULTA_CRIADA");
     }
 
     private NotificacaoTemplate gerarTemplateConsultaEditada(String pacienteNome, String medicoNome, 
-                                                           String medicoEspecialidade, String novaDataHora, 
+                                                           String medicoEspecialidade, LocalDateTime novaDataHora, 
                                                            String observacoes, Map<String, Object> alteracoes) {
         String titulo = "🔄 Consulta Atualizada";
         
-        // Construir mensagem apenas com campos alterados
-        StringBuilder camposAlterados = new StringBuilder();
+        FormatadorDataHora.SlotFormatado slot = formatador.formatar(novaDataHora);
         
-        if (alteracoes != null && !alteracoes.isEmpty()) {
-            camposAlterados.append("Os seguintes dados foram alterados:\n\n");
-            
-            if (alteracoes.containsKey("dataHora")) {
-                LocalDateTime dataHora = LocalDateTime.parse(novaDataHora);
-                camposAlterados.append(String.format("📅 Nova Data: %s\n", dataHora.format(DATE_FORMATTER)));
-                camposAlterados.append(String.format("⏰ Novo Horário: %s\n", dataHora.format(DateTimeFormatter.ofPattern("HH:mm"))));
+        Context context = new Context(FormatadorDataHora.LOCALE);
+        context.setVariable("pacienteNome", pacienteNome);
+        context.setVariable("medicoNome", medicoNome);
+        
+        // Apenas os campos alterados entram na mensagem
+        boolean temAlteracoes = alteracoes != null && !alteracoes.isEmpty();
+        context.setVariable("temAlteracoes", temAlteracoes);
+        
+        if (temAlteracoes) {
+            boolean alterouDataHora = alteracoes.containsKey("dataHora");
+            context.setVariable("alterouDataHora", alterouDataHora);
+            if (alterouDataHora) {
+                context.setVariable("data", slot.data());
+                context.setVariable("hora", slot.hora());
+                context.setVariable("diaSemana", slot.diaSemana());
             }
             
-            if (alteracoes.containsKey("observacoes")) {
-                camposAlterados.append(String.format("📝 Observações: %s\n", 
-                    observacoes != null && !observacoes.trim().isEmpty() ? observacoes : "Removidas"));
+            boolean alterouObservacoes = alteracoes.containsKey("observacoes");
+            context.setVariable("alterouObservacoes", alterouObservacoes);
+            if (alterouObservacoes) {
+                context.setVariable("observacoes", 
+                    observacoes != null && !observacoes.trim().isEmpty() ? observacoes : "Removidas");
             }
             
             if (alteracoes.containsKey("status")) {
-                String status = alteracoes.get("status").toString();
-                String statusFormatado = formatarStatus(status);
-                camposAlterados.append(String.format("📊 Status: %s\n", statusFormatado));
+                context.setVariable("status", formatarStatus(alteracoes.get("status").toString()));
             }
             
-            if (alteracoes.containsKey("especialidadeId")) {
-                camposAlterados.append(String.format("🏥 Especialidade: %s\n", 
-                    medicoEspecialidade != null ? medicoEspecialidade : "Não informada"));
+            boolean alterouEspecialidade = alteracoes.containsKey("especialidadeId");
+            context.setVariable("alterouEspecialidade", alterouEspecialidade);
+            if (alterouEspecialidade) {
+                context.setVariable("especialidade", medicoEspecialidade != null ? medicoEspecialidade : "Não informada");
             }
         } else {
             // Fallback se não houver informações de alterações
-            if (novaDataHora != null && !novaDataHora.trim().isEmpty()) {
-                LocalDateTime dataHora = LocalDateTime.parse(novaDataHora);
-                camposAlterados.append("📅 Data: ").append(dataHora.format(DATE_FORMATTER)).append("\n");
-                camposAlterados.append("⏰ Horário: ").append(dataHora.format(DateTimeFormatter.ofPattern("HH:mm"))).append("\n");
+            if (novaDataHora != null) {
+                context.setVariable("data", slot.data());
+                context.setVariable("hora", slot.hora());
+                context.setVariable("diaSemana", slot.diaSemana());
             }
             if (observacoes != null && !observacoes.trim().isEmpty()) {
-                camposAlterados.append("📝 Observações: ").append(observacoes).append("\n");
+                context.setVariable("observacoes", observacoes);
             }
         }
         
-        String mensagem = String.format("""
-            Olá, %s!
-            
-            Sua consulta foi atualizada:
-            
-            %s
-            👨‍⚕️ Médico: %s
-            
-            ⚠️ Importante:
-            • Verifique os novos dados da consulta
-            • Chegue com 15 minutos de antecedência
-            • Em caso de dúvidas, entre em contato conosco
-            
-            Atenciosamente,
-            Equipe MedSync
-            """,
-            pacienteNome,
-            camposAlterados.toString(),
-            medicoNome
-        );
+        String mensagem = templateEngine.process(TEMPLATE_CONSULTA_EDITADA, context);
 
         return new NotificacaoTemplate(titulo, mensagem, "CONSULTA_EDITADA");
     }
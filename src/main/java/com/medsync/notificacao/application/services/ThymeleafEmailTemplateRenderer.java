@@ -0,0 +1,46 @@
+package com.medsync.notificacao.application.services;
+
+import com.medsync.notificacao.presentation.dto.NotificacaoRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+// HTML dos emails a partir de consulta-notificacao.html em app.notificacao.template-path
+@Component
+@ConditionalOnProperty(name = "app.notificacao.templates.html-engine", havingValue = "thymeleaf")
+public class ThymeleafEmailTemplateRenderer implements EmailTemplateRenderer {
+
+    private static final String TEMPLATE = "consulta-notificacao.html";
+
+    private final ITemplateEngine templateEngine;
+    private final FormatadorDataHora formatador;
+
+    public ThymeleafEmailTemplateRenderer(ITemplateEngine templateEngine, FormatadorDataHora formatador) {
+        this.templateEngine = templateEngine;
+        this.formatador = formatador;
+    }
+
+    @Override
+    public String renderizar(NotificacaoRequest notificacao, String tipoEvento) {
+        TipoEventoEmail tipo = TipoEventoEmail.de(tipoEvento);
+        FormatadorDataHora.SlotFormatado slot = formatador.formatar(notificacao.dataHora());
+
+        Context context = new Context(FormatadorDataHora.LOCALE);
+        context.setVariable("titulo", notificacao.titulo());
+        context.setVariable("cor", tipo.cor());
+        context.setVariable("corEscura", tipo.corEscura());
+        context.setVariable("icone", tipo.icone());
+        context.setVariable("mensagemPersonalizada", tipo.mensagemPersonalizada());
+        context.setVariable("pacienteNome", notificacao.pacienteNome());
+        context.setVariable("data", slot.data());
+        context.setVariable("hora", slot.hora());
+        context.setVariable("diaSemana", slot.diaSemana());
+        context.setVariable("medicoNome", notificacao.medicoNome());
+        context.setVariable("medicoTelefone", notificacao.medicoTelefone());
+        context.setVariable("local", TipoEventoEmail.LOCAL);
+        context.setVariable("clinica", TipoEventoEmail.CLINICA);
+
+        return templateEngine.process(TEMPLATE, context);
+    }
+}
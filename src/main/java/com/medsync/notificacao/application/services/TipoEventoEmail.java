@@ -0,0 +1,53 @@
+package com.medsync.notificacao.application.services;
+
+// Partes constantes do email por tipo de evento, compartilhadas pelos motores de template
+public enum TipoEventoEmail {
+
+    CRIADA("#28a745", "#1e7e34", "✅",
+        "<p>Sua consulta foi <strong>agendada com sucesso</strong>! Chegue com 15 minutos de antecedência.</p>"),
+    EDITADA("#ffc107", "#e0a800", "🔄",
+        "<p>Sua consulta foi <strong>atualizada</strong>. Verifique os novos dados acima.</p>"),
+    LEMBRETE("#17a2b8", "#117a8b", "⏰",
+        "<p><strong>Lembrete:</strong> Sua consulta é hoje! Não esqueça de trazer seus documentos.</p>"),
+    PADRAO("#007bff", "#0056b3", "📧", "");
+
+    public static final String LOCAL = "MedSync Clínica - Centro Médico";
+    public static final String CLINICA = "MedSync Clínica";
+
+    private final String cor;
+    private final String corEscura;
+    private final String icone;
+    private final String mensagemPersonalizada;
+
+    TipoEventoEmail(String cor, String corEscura, String icone, String mensagemPersonalizada) {
+        this.cor = cor;
+        this.corEscura = corEscura;
+        this.icone = icone;
+        this.mensagemPersonalizada = mensagemPersonalizada;
+    }
+
+    public static TipoEventoEmail de(String tipoEvento) {
+        return switch (tipoEvento.toLowerCase()) {
+            case "criada" -> CRIADA;
+            case "editada" -> EDITADA;
+            case "lembrete" -> LEMBRETE;
+            default -> PADRAO;
+        };
+    }
+
+    public String cor() {
+        return cor;
+    }
+
+    public String corEscura() {
+        return corEscura;
+    }
+
+    public String icone() {
+        return icone;
+    }
+
+    public String mensagemPersonalizada() {
+        return mensagemPersonalizada;
+    }
+}
@@ -18,7 +18,7 @@ public record ConsultaCriadaNotificacaoEvent(
     @JsonProperty("observacoes") String observacoes,
     @JsonProperty("status") String status,
     @JsonProperty("timestamp") String timestamp
-) {
+) implements NotificacaoEvent {
     public ConsultaCriadaNotificacaoEvent(String consultaId, String pacienteNome, String pacienteEmail, 
                                          String pacienteTelefone, String medicoNome, String medicoEmail,
                                          String medicoTelefone, String medicoEspecialidade, 
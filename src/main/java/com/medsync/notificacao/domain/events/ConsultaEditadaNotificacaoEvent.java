@@ -21,7 +21,7 @@ public record ConsultaEditadaNotificacaoEvent(
     @JsonProperty("alteracoes") Map<String, Object> alteracoes,
     @JsonProperty("editado_por_id") String editadoPorId,
     @JsonProperty("timestamp") String timestamp
-) {
+) implements NotificacaoEvent {
     public ConsultaEditadaNotificacaoEvent(String consultaId, String pacienteNome, String pacienteEmail,
                                          String pacienteTelefone, String medicoNome, String medicoEmail,
                                          String medicoTelefone, String medicoEspecialidade, 
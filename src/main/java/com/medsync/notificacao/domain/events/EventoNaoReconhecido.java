@@ -0,0 +1,12 @@
+package com.medsync.notificacao.domain.events;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// Usado quando o "evento" não corresponde a nenhum tipo conhecido (ou está ausente)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record EventoNaoReconhecido(
+    @JsonProperty("evento") String evento,
+    @JsonProperty("consulta_id") String consultaId,
+    @JsonProperty("timestamp") String timestamp
+) implements NotificacaoEvent {}
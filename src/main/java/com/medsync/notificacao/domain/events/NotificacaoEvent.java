@@ -0,0 +1,26 @@
+package com.medsync.notificacao.domain.events;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+// O campo "evento" já vem no payload e funciona como discriminador do tipo,
+// permitindo que o Jackson resolva o record correto na mesma leitura do JSON
+@JsonTypeInfo(
+    use = JsonTypeInfo.Id.NAME,
+    include = JsonTypeInfo.As.EXISTING_PROPERTY,
+    property = "evento",
+    visible = true,
+    defaultImpl = EventoNaoReconhecido.class
+)
+@JsonSubTypes({
+    @JsonSubTypes.Type(value = ConsultaCriadaNotificacaoEvent.class, name = "consulta_criada_notificacao"),
+    @JsonSubTypes.Type(value = ConsultaEditadaNotificacaoEvent.class, name = "consulta_editada_notificacao")
+})
+public interface NotificacaoEvent {
+
+    String evento();
+
+    String consultaId();
+
+    String timestamp();
+}
@@ -0,0 +1,105 @@
+package com.medsync.notificacao.infrastructure.clients;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Agrupa pedidos individuais feitos dentro de uma janela curta numa única requisição em lote.
+// Pedidos concorrentes pela mesma chave compartilham o mesmo future; o lote é disparado
+// quando a janela expira ou quando atinge maxLote chaves.
+class AgrupadorRequisicoes<K, V> implements AutoCloseable {
+
+    private final Function<Set<K>, Map<K, V>> buscaEmLote;
+    private final Executor executor;
+    private final long janelaMs;
+    private final int maxLote;
+    private final ScheduledExecutorService timer;
+    private Map<K, CompletableFuture<V>> pendentes = new HashMap<>();
+
+    // buscaEmLote recebe as chaves pendentes e deve devolver um valor para cada uma delas
+    AgrupadorRequisicoes(Function<Set<K>, Map<K, V>> buscaEmLote, Executor executor,
+                         long janelaMs, int maxLote, String nomeThread) {
+        this.buscaEmLote = buscaEmLote;
+        this.executor = executor;
+        this.janelaMs = janelaMs;
+        this.maxLote = Math.max(1, maxLote);
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, nomeThread);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    CompletableFuture<V> buscar(K chave) {
+        Map<K, CompletableFuture<V>> lotePronto = null;
+        CompletableFuture<V> futuro;
+        synchronized (this) {
+            futuro = pendentes.get(chave);
+            if (futuro != null) {
+                return futuro;
+            }
+            futuro = new CompletableFuture<>();
+            pendentes.put(chave, futuro);
+            if (pendentes.size() >= maxLote) {
+                lotePronto = pendentes;
+                pendentes = new HashMap<>();
+            } else if (pendentes.size() == 1) {
+                // Primeira chave da janela: o timer dispara o lote, cheio ou não
+                timer.schedule(this::dispararPendentes, janelaMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (lotePronto != null) {
+            disparar(lotePronto);
+        }
+        return futuro;
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        dispararPendentes();
+    }
+
+    private void dispararPendentes() {
+        Map<K, CompletableFuture<V>> lote;
+        synchronized (this) {
+            if (pendentes.isEmpty()) {
+                return;
+            }
+            lote = pendentes;
+            pendentes = new HashMap<>();
+        }
+        disparar(lote);
+    }
+
+    private void disparar(Map<K, CompletableFuture<V>> lote) {
+        try {
+            executor.execute(() -> executar(lote));
+        } catch (RejectedExecutionException e) {
+            lote.values().forEach(futuro -> futuro.completeExceptionally(e));
+        }
+    }
+
+    private void executar(Map<K, CompletableFuture<V>> lote) {
+        try {
+            Map<K, V> resultado = buscaEmLote.apply(lote.keySet());
+            lote.forEach((chave, futuro) -> {
+                if (resultado.containsKey(chave)) {
+                    futuro.complete(resultado.get(chave));
+                } else {
+                    futuro.completeExceptionally(new IllegalStateException("Chave ausente na resposta em lote: " + chave));
+                }
+            });
+        } catch (Throwable e) {
+            // Inclusive Errors: um future nunca completado deixaria os chamadores presos no join()
+            lote.values().forEach(futuro -> futuro.completeExceptionally(e));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.medsync.notificacao.infrastructure.clients;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// Configuração do CadastroServiceClient (app.services.agendamento.*): cache de usuários,
+// circuit breaker e bulkhead, agrupamento de buscas em lote e execução das requisições
+@ConfigurationProperties("app.services.agendamento")
+public record CadastroClientProperties(
+    @DefaultValue("http://localhost:8080") String url,
+    // Requisições do cliente em virtual threads (JDK 21+)
+    @DefaultValue("false") boolean virtualThreads,
+    @DefaultValue Cache cache,
+    @DefaultValue CircuitBreaker circuitBreaker,
+    @DefaultValue Bulkhead bulkhead,
+    @DefaultValue Lote lote
+) {
+
+    public record Cache(
+        @DefaultValue("10000") long maxSize,
+        @DefaultValue("600000") long ttlMs,
+        @DefaultValue("300000") long refreshAfterMs,
+        // Usuários não encontrados (404)
+        @DefaultValue("60000") long negativeTtlMs,
+        // Fallback com o serviço indisponível
+        @DefaultValue("86400000") long ultimoConhecidoTtlMs
+    ) {}
+
+    public record CircuitBreaker(
+        // % de falhas para abrir
+        @DefaultValue("50") float failureRateThreshold,
+        @DefaultValue("2000") long slowCallThresholdMs,
+        // % de chamadas lentas para abrir
+        @DefaultValue("50") float slowCallRateThreshold,
+        @DefaultValue("20") int slidingWindowSize,
+        @DefaultValue("10") int minimumCalls,
+        @DefaultValue("30000") long waitOpenMs,
+        @DefaultValue("3") int halfOpenCalls
+    ) {}
+
+    public record Bulkhead(
+        // Requisições simultâneas ao cadastro
+        @DefaultValue("10") int maxConcurrent,
+        @DefaultValue("0") long maxWaitMs
+    ) {}
+
+    public record Lote(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10") long janelaMs,
+        @DefaultValue("50") int maxIds
+    ) {}
+}
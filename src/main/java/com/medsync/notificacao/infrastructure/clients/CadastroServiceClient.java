@@ -1,86 +1,348 @@
 package com.medsync.notificacao.infrastructure.clients;
 
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import com.medsync.notificacao.infrastructure.metrics.LatenciaEstagios;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.client.RestClientException;
+import org.springframework.web.util.UriComponentsBuilder;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Component
 public class CadastroServiceClient {
 
     private static final Logger logger = LoggerFactory.getLogger(CadastroServiceClient.class);
 
+    private static final Supplier<UserResponse> SEM_FALLBACK = () -> null;
+
     private final RestTemplate restTemplate;
     private final String cadastroServiceUrl;
+    private final Executor executor;
+    private final AgrupadorRequisicoes<UUID, Optional<UserResponse>> agrupador;
+    // Optional.empty() representa usuário inexistente (404), mantido por menos tempo
+    private final AsyncLoadingCache<UUID, Optional<UserResponse>> usuarios;
+    // Último dado obtido de cada usuário, mantido além do TTL para o fallback
+    private final Cache<UUID, UserResponse> ultimosConhecidos;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    // Espera do chamador pela busca (cache ou cadastro), no histograma de estágios
+    private final Timer tempoBusca;
+    // Desligado na primeira resposta indicando que o serviço não expõe GET /usuarios?ids=
+    private volatile boolean buscaEmLoteSuportada = true;
 
-    public CadastroServiceClient(RestTemplate restTemplate, 
-                                @Value("${app.services.agendamento.url:http://localhost:8080}") String agendamentoServiceUrl) {
+    public CadastroServiceClient(RestTemplate restTemplate,
+                                CadastroClientProperties properties,
+                                CircuitBreaker cadastroCircuitBreaker,
+                                Bulkhead cadastroBulkhead,
+                                MeterRegistry meterRegistry) {
+        CadastroClientProperties.Cache cache = properties.cache();
+        CadastroClientProperties.Lote lote = properties.lote();
         this.restTemplate = restTemplate;
-        this.cadastroServiceUrl = agendamentoServiceUrl;
+        this.cadastroServiceUrl = properties.url();
+        this.circuitBreaker = cadastroCircuitBreaker;
+        this.bulkhead = cadastroBulkhead;
+        this.ultimosConhecidos = Caffeine.newBuilder()
+            .maximumSize(cache.maxSize())
+            .expireAfterWrite(cache.ultimoConhecidoTtlMs(), TimeUnit.MILLISECONDS)
+            .build();
+        this.executor = criarExecutor(properties.virtualThreads());
+        // Sem lote, cada chave vira um "lote" de uma requisição individual
+        this.agrupador = new AgrupadorRequisicoes<>(this::carregarUsuariosProtegido, executor,
+            lote.enabled() ? lote.janelaMs() : 0, lote.enabled() ? lote.maxIds() : 1, "cadastro-lote-timer");
+        this.usuarios = Caffeine.newBuilder()
+            .maximumSize(cache.maxSize())
+            .expireAfter(new ExpiracaoUsuario(TimeUnit.MILLISECONDS.toNanos(cache.ttlMs()),
+                                              TimeUnit.MILLISECONDS.toNanos(cache.negativeTtlMs())))
+            // Entradas lidas após refresh-after são recarregadas em background: médicos
+            // frequentes nunca expiram no caminho da notificação
+            .refreshAfterWrite(cache.refreshAfterMs(), TimeUnit.MILLISECONDS)
+            .recordStats()
+            // Chamadas concorrentes pelo mesmo id recebem o mesmo future em andamento
+            .buildAsync((usuarioId, cacheExecutor) -> agrupador.buscar(usuarioId));
+        CaffeineCacheMetrics.monitor(meterRegistry, usuarios, "cadastro.usuarios");
+        this.tempoBusca = LatenciaEstagios.timer(meterRegistry, LatenciaEstagios.Estagio.CADASTRO,
+            LatenciaEstagios.EVENTO_COMPARTILHADO);
     }
 
     public UserResponse buscarPaciente(UUID pacienteId) {
+        return buscarPaciente(pacienteId, SEM_FALLBACK);
+    }
+
+    // dadosDoEvento: usado quando o cadastro está indisponível e não há dado conhecido em cache
+    public UserResponse buscarPaciente(UUID pacienteId, Supplier<UserResponse> dadosDoEvento) {
+        logger.debug("Buscando dados do paciente: {}", pacienteId);
+        UserResponse response = buscarUsuario(pacienteId, dadosDoEvento);
+
+        if (response != null) {
+            logger.debug("Dados do paciente encontrados: {} - {}", response.nome(), response.email());
+        } else {
+            logger.warn("Paciente não encontrado: {}", pacienteId);
+        }
+
+        return response;
+    }
+
+    public UserResponse buscarMedico(UUID medicoId) {
+        return buscarMedico(medicoId, SEM_FALLBACK);
+    }
+
+    public UserResponse buscarMedico(UUID medicoId, Supplier<UserResponse> dadosDoEvento) {
+        logger.debug("Buscando dados do médico: {}", medicoId);
+        UserResponse response = buscarUsuario(medicoId, dadosDoEvento);
+
+        if (response != null) {
+            logger.debug("Dados do médico encontrados: {}", response.nome());
+        } else {
+            logger.warn("Médico não encontrado: {}", medicoId);
+        }
+
+        return response;
+    }
+
+    // Variantes assíncronas: cache hit completa na hora e as buscas de paciente e médico de um
+    // mesmo evento correm em paralelo (e no mesmo lote HTTP) em vez de uma após a outra.
+    // Falhas caem no mesmo fallback das versões bloqueantes.
+    public CompletableFuture<UserResponse> buscarPacienteAsync(UUID pacienteId) {
+        return buscarPacienteAsync(pacienteId, SEM_FALLBACK);
+    }
+
+    public CompletableFuture<UserResponse> buscarPacienteAsync(UUID pacienteId, Supplier<UserResponse> dadosDoEvento) {
+        return buscarUsuarioAsync(pacienteId, "paciente", dadosDoEvento);
+    }
+
+    public CompletableFuture<UserResponse> buscarMedicoAsync(UUID medicoId) {
+        return buscarMedicoAsync(medicoId, SEM_FALLBACK);
+    }
+
+    public CompletableFuture<UserResponse> buscarMedicoAsync(UUID medicoId, Supplier<UserResponse> dadosDoEvento) {
+        return buscarUsuarioAsync(medicoId, "médico", dadosDoEvento);
+    }
+
+    // Resolve vários usuários de uma vez; ids não encontrados ficam fora do mapa
+    public Map<UUID, UserResponse> buscarUsuarios(Collection<UUID> usuarioIds) {
+        long inicio = System.nanoTime();
         try {
-            logger.debug("Buscando dados do paciente: {}", pacienteId);
-            
-            String url = String.format("%s/usuarios/%s", cadastroServiceUrl, pacienteId);
-            
-            // Adicionar header para identificar que é do serviço de notificações
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("X-Service-Source", "notificacao-api");
-            headers.set("X-Service-Port", "8082");
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            
-            UserResponse response = restTemplate.exchange(url, HttpMethod.GET, entity, UserResponse.class).getBody();
-            
-            if (response != null) {
-                logger.debug("Dados do paciente encontrados: {} - {}", response.nome(), response.email());
-            } else {
-                logger.warn("Paciente não encontrado: {}", pacienteId);
+            Map<UUID, Optional<UserResponse>> encontrados = usuarios.getAll(usuarioIds).join();
+            Map<UUID, UserResponse> resultado = new LinkedHashMap<>();
+            encontrados.forEach((id, usuario) -> usuario.ifPresent(u -> resultado.put(id, u)));
+            return resultado;
+        } catch (CompletionException e) {
+            logger.warn("Erro ao buscar dados de {} usuários, usando últimos dados conhecidos: {}",
+                usuarioIds.size(), causa(e).getMessage());
+            Map<UUID, UserResponse> resultado = new LinkedHashMap<>();
+            usuarioIds.forEach(id -> {
+                UserResponse conhecido = ultimosConhecidos.getIfPresent(id);
+                if (conhecido != null) {
+                    resultado.put(id, conhecido);
+                }
+            });
+            return resultado;
+        } finally {
+            tempoBusca.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        agrupador.close();
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        } else if (executor instanceof SimpleAsyncTaskExecutor taskExecutor) {
+            taskExecutor.close();
+        }
+    }
+
+    private CompletableFuture<UserResponse> buscarUsuarioAsync(UUID usuarioId, String tipo, Supplier<UserResponse> dadosDoEvento) {
+        long inicio = System.nanoTime();
+        return usuarios.get(usuarioId)
+            .whenComplete((usuario, erro) -> tempoBusca.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS))
+            .thenApply(usuario -> {
+                if (usuario.isEmpty()) {
+                    logger.warn("Usuário ({}) não encontrado: {}", tipo, usuarioId);
+                }
+                return usuario.orElse(null);
+            })
+            .exceptionally(e -> fallback(usuarioId, dadosDoEvento,
+                e instanceof CompletionException && e.getCause() != null ? e.getCause() : e));
+    }
+
+    private UserResponse buscarUsuario(UUID usuarioId, Supplier<UserResponse> dadosDoEvento) {
+        long inicio = System.nanoTime();
+        try {
+            return usuarios.get(usuarioId).join().orElse(null);
+        } catch (CompletionException e) {
+            // Falhas que não são 404 não entram no cache: a próxima chamada tenta de novo
+            return fallback(usuarioId, dadosDoEvento, causa(e));
+        } finally {
+            tempoBusca.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private UserResponse fallback(UUID usuarioId, Supplier<UserResponse> dadosDoEvento, Throwable erro) {
+        if (erro instanceof CallNotPermittedException || erro instanceof BulkheadFullException) {
+            logger.warn("Busca do usuário {} rejeitada sem chamar o cadastro: {}", usuarioId, erro.getMessage());
+        } else {
+            logger.error("Erro ao buscar dados do usuário {}: {}", usuarioId, erro.getMessage());
+        }
+
+        UserResponse conhecido = ultimosConhecidos.getIfPresent(usuarioId);
+        if (conhecido != null) {
+            logger.debug("Usando último dado conhecido do usuário {}", usuarioId);
+            return conhecido;
+        }
+        return dadosDoEvento.get();
+    }
+
+    // Bulkhead por fora: rejeições por excesso de concorrência não contam como falha no circuito
+    private Map<UUID, Optional<UserResponse>> carregarUsuariosProtegido(Set<UUID> usuarioIds) {
+        Map<UUID, Optional<UserResponse>> resultado = Bulkhead.decorateSupplier(bulkhead,
+            CircuitBreaker.decorateSupplier(circuitBreaker, () -> carregarUsuarios(usuarioIds))).get();
+        resultado.forEach((id, usuario) -> usuario.ifPresent(u -> ultimosConhecidos.put(id, u)));
+        return resultado;
+    }
+
+    private Map<UUID, Optional<UserResponse>> carregarUsuarios(Set<UUID> usuarioIds) {
+        if (usuarioIds.size() > 1 && buscaEmLoteSuportada) {
+            try {
+                return carregarEmLote(usuarioIds);
+            } catch (HttpStatusCodeException e) {
+                if (!endpointEmLoteIndisponivel(e)) {
+                    throw e;
+                }
+                buscaEmLoteSuportada = false;
+                logger.warn("Serviço de cadastro não suporta busca em lote ({}), usando requisições individuais",
+                    e.getStatusCode());
             }
-            
-            return response;
-            
-        } catch (RestClientException e) {
-            logger.error("Erro ao buscar dados do paciente {}: {}", pacienteId, e.getMessage());
-            return null;
         }
+
+        Map<UUID, Optional<UserResponse>> resultado = new HashMap<>();
+        for (UUID usuarioId : usuarioIds) {
+            resultado.put(usuarioId, carregarUsuario(usuarioId));
+        }
+        return resultado;
     }
 
-    public UserResponse buscarMedico(UUID medicoId) {
+    private Map<UUID, Optional<UserResponse>> carregarEmLote(Set<UUID> usuarioIds) {
+        String url = UriComponentsBuilder.fromHttpUrl(cadastroServiceUrl)
+            .path("/usuarios")
+            .queryParam("ids", usuarioIds.stream().map(UUID::toString).collect(Collectors.joining(",")))
+            .toUriString();
+
+        List<UserResponse> encontrados = restTemplate.exchange(url, HttpMethod.GET, criarEntity(),
+            new ParameterizedTypeReference<List<UserResponse>>() {}).getBody();
+        logger.debug("Busca em lote de {} usuários retornou {}", usuarioIds.size(),
+            encontrados != null ? encontrados.size() : 0);
+
+        // Ids ausentes da resposta são tratados como não encontrados
+        Map<UUID, Optional<UserResponse>> resultado = new HashMap<>();
+        usuarioIds.forEach(id -> resultado.put(id, Optional.empty()));
+        if (encontrados != null) {
+            encontrados.forEach(usuario -> resultado.computeIfPresent(usuario.id(), (id, vazio) -> Optional.of(usuario)));
+        }
+        return resultado;
+    }
+
+    private Optional<UserResponse> carregarUsuario(UUID usuarioId) {
+        String url = String.format("%s/usuarios/%s", cadastroServiceUrl, usuarioId);
+
         try {
-            logger.debug("Buscando dados do médico: {}", medicoId);
-            
-            String url = String.format("%s/usuarios/%s", cadastroServiceUrl, medicoId);
-            
-            // Adicionar header para identificar que é do serviço de notificações
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("X-Service-Source", "notificacao-api");
-            headers.set("X-Service-Port", "8082");
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            
-            UserResponse response = restTemplate.exchange(url, HttpMethod.GET, entity, UserResponse.class).getBody();
-            
-            if (response != null) {
-                logger.debug("Dados do médico encontrados: {} - {}", response.nome());
-            } else {
-                logger.warn("Médico não encontrado: {}", medicoId);
+            return Optional.ofNullable(restTemplate.exchange(url, HttpMethod.GET, criarEntity(), UserResponse.class).getBody());
+        } catch (HttpClientErrorException.NotFound e) {
+            return Optional.empty();
+        }
+    }
+
+    private HttpEntity<String> criarEntity() {
+        // Adicionar header para identificar que é do serviço de notificações
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Service-Source", "notificacao-api");
+        headers.set("X-Service-Port", "8082");
+        return new HttpEntity<>(headers);
+    }
+
+    private boolean endpointEmLoteIndisponivel(HttpStatusCodeException e) {
+        return e.getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND)
+            || e.getStatusCode().isSameCodeAs(HttpStatus.METHOD_NOT_ALLOWED)
+            || e.getStatusCode().isSameCodeAs(HttpStatus.BAD_REQUEST)
+            || e.getStatusCode().isSameCodeAs(HttpStatus.NOT_IMPLEMENTED);
+    }
+
+    private Throwable causa(CompletionException e) {
+        return e.getCause() != null ? e.getCause() : e;
+    }
+
+    // As requisições HTTP bloqueiam a thread do executor, nunca a thread de quem chama a API assíncrona
+    private static Executor criarExecutor(boolean virtualThreads) {
+        if (virtualThreads) {
+            if (Runtime.version().feature() >= 21) {
+                SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("cadastro-client-");
+                executor.setVirtualThreads(true);
+                return executor;
             }
-            
-            return response;
-            
-        } catch (RestClientException e) {
-            logger.error("Erro ao buscar dados do médico {}: {}", medicoId, e.getMessage());
-            return null;
+            logger.warn("app.services.agendamento.virtual-threads habilitado, mas o JDK {} não suporta virtual threads; "
+                + "utilizando threads de plataforma", Runtime.version().feature());
+        }
+        AtomicInteger contador = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "cadastro-client-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private record ExpiracaoUsuario(long ttlNanos, long ttlNegativoNanos) implements Expiry<UUID, Optional<UserResponse>> {
+
+        @Override
+        public long expireAfterCreate(UUID id, Optional<UserResponse> usuario, long currentTime) {
+            return usuario.isPresent() ? ttlNanos : ttlNegativoNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(UUID id, Optional<UserResponse> usuario, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, usuario, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(UUID id, Optional<UserResponse> usuario, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
 
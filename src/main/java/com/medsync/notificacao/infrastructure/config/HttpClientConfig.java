@@ -1,19 +1,106 @@
 package com.medsync.notificacao.infrastructure.config;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+
+import java.util.function.ToDoubleFunction;
 
 @Configuration
 public class HttpClientConfig {
 
+    @Value("${app.services.http.max-connections:100}")
+    private int maxConnections;
+
+    @Value("${app.services.http.max-connections-per-route:20}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${app.services.http.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${app.services.http.read-timeout-ms:3000}")
+    private long readTimeoutMs;
+
+    @Value("${app.services.http.connection-request-timeout-ms:1000}")
+    private long connectionRequestTimeoutMs;
+
+    @Value("${app.services.http.keep-alive-ms:30000}")
+    private long keepAliveMs;
+
+    @Value("${app.services.http.connection-ttl-ms:300000}")
+    private long connectionTtlMs;
+
+    @Value("${app.services.http.validate-after-inactivity-ms:2000}")
+    private long validateAfterInactivityMs;
+
+    // Pool de conexões HTTP persistentes para os serviços internos: as consultas ao cadastro
+    // reutilizam conexões já abertas em vez de um HttpURLConnection por requisição
     @Bean
-    public RestTemplate restTemplate() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(5000); // 5 segundos
-        factory.setReadTimeout(10000);   // 10 segundos
-        
-        return new RestTemplate(factory);
+    public PoolingHttpClientConnectionManager httpConnectionManager(MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(maxConnections)
+            .setMaxConnPerRoute(maxConnectionsPerRoute)
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .setTimeToLive(TimeValue.ofMilliseconds(connectionTtlMs))
+                .setValidateAfterInactivity(TimeValue.ofMilliseconds(validateAfterInactivityMs))
+                .build())
+            .build();
+
+        registrarGauge(meterRegistry, connectionManager, "leased", "Conexões HTTP em uso",
+            cm -> cm.getTotalStats().getLeased());
+        registrarGauge(meterRegistry, connectionManager, "available", "Conexões HTTP ociosas no pool",
+            cm -> cm.getTotalStats().getAvailable());
+        registrarGauge(meterRegistry, connectionManager, "pending", "Requisições aguardando conexão do pool",
+            cm -> cm.getTotalStats().getPending());
+        registrarGauge(meterRegistry, connectionManager, "max", "Limite de conexões HTTP do pool",
+            cm -> cm.getTotalStats().getMax());
+        return connectionManager;
+    }
+
+    @Bean
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager httpConnectionManager) {
+        TimeValue keepAliveMaximo = TimeValue.ofMilliseconds(keepAliveMs);
+        return HttpClients.custom()
+            .setConnectionManager(httpConnectionManager)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeoutMs))
+                .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .build())
+            // Respeita o Keep-Alive do servidor, limitado a keep-alive-ms
+            .setKeepAliveStrategy((response, context) -> {
+                TimeValue servidor = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                return TimeValue.isPositive(servidor) && servidor.compareTo(keepAliveMaximo) < 0 ? servidor : keepAliveMaximo;
+            })
+            .evictExpiredConnections()
+            .evictIdleConnections(keepAliveMaximo)
+            .build();
+    }
+
+    @Bean
+    public RestTemplate restTemplate(CloseableHttpClient httpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
+    private void registrarGauge(MeterRegistry meterRegistry, PoolingHttpClientConnectionManager connectionManager,
+                                String estado, String descricao, ToDoubleFunction<PoolingHttpClientConnectionManager> valor) {
+        Gauge.builder("notificacao.http.pool.connections", connectionManager, valor)
+            .tag("state", estado)
+            .description(descricao)
+            .register(meterRegistry);
     }
 }
@@ -0,0 +1,53 @@
+package com.medsync.notificacao.infrastructure.config;
+
+import com.medsync.notificacao.infrastructure.email.PooledJavaMailSender;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Properties;
+
+@Configuration
+@EnableConfigurationProperties(MailProperties.class)
+public class MailConfig {
+
+    @Value("${app.notificacao.email.smtp-pool.size:4}")
+    private int tamanhoPool;
+
+    @Value("${app.notificacao.email.smtp-pool.max-idle-ms:60000}")
+    private long maxIdleMs;
+
+    @Value("${app.notificacao.email.smtp-pool.borrow-timeout-ms:10000}")
+    private long borrowTimeoutMs;
+
+    // Substitui o JavaMailSenderImpl do Spring Boot (uma conexão SMTP por email) por conexões
+    // persistentes reutilizadas; com smtp-pool.enabled=false o sender padrão volta a ser usado
+    @Bean
+    @ConditionalOnProperty(name = "app.notificacao.email.smtp-pool.enabled", havingValue = "true", matchIfMissing = true)
+    public PooledJavaMailSender mailSender(MailProperties properties, MeterRegistry meterRegistry) {
+        PooledJavaMailSender sender = new PooledJavaMailSender(tamanhoPool, maxIdleMs, borrowTimeoutMs);
+        sender.setHost(properties.getHost());
+        if (properties.getPort() != null) {
+            sender.setPort(properties.getPort());
+        }
+        sender.setUsername(properties.getUsername());
+        sender.setPassword(properties.getPassword());
+        sender.setProtocol(properties.getProtocol());
+        if (properties.getDefaultEncoding() != null) {
+            sender.setDefaultEncoding(properties.getDefaultEncoding().name());
+        }
+        Properties javaMailProperties = new Properties();
+        javaMailProperties.putAll(properties.getProperties());
+        sender.setJavaMailProperties(javaMailProperties);
+
+        Gauge.builder("notificacao.smtp.pool.idle", sender, PooledJavaMailSender::conexoesOciosas)
+                .description("Conexões SMTP autenticadas aguardando reutilização")
+                .register(meterRegistry);
+        return sender;
+    }
+}
@@ -2,17 +2,24 @@ package com.medsync.notificacao.infrastructure.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 
 @Configuration
 public class RabbitMQConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(RabbitMQConfig.class);
+
     @Value("${app.rabbitmq.exchange-consultas}")
     private String exchangeConsultas;
 
@@ -22,6 +29,27 @@ public class RabbitMQConfig {
     @Value("${app.rabbitmq.routing-key-notificacoes}")
     private String routingKeyNotificacoes;
 
+    @Value("${app.rabbitmq.queue-notificacoes-dlq}")
+    private String queueNotificacoesDlq;
+
+    @Value("${app.rabbitmq.listener.concurrency:1}")
+    private int concurrentConsumers;
+
+    @Value("${app.rabbitmq.listener.max-concurrency:4}")
+    private int maxConcurrentConsumers;
+
+    @Value("${app.rabbitmq.listener.prefetch:50}")
+    private int prefetchCount;
+
+    @Value("${app.rabbitmq.listener.virtual-threads:false}")
+    private boolean virtualThreads;
+
+    @Value("${app.rabbitmq.batch.size:100}")
+    private int batchSize;
+
+    @Value("${app.rabbitmq.batch.receive-timeout-ms:1000}")
+    private long batchReceiveTimeoutMs;
+
     // Exchange para consultas
     @Bean
     public TopicExchange exchangeConsultas() {
@@ -34,6 +62,12 @@ public class RabbitMQConfig {
         return QueueBuilder.durable(queueNotificacoes).build();
     }
 
+    // Fila de mensagens inválidas (poison messages) do consumo em lote
+    @Bean
+    public Queue queueNotificacoesDlq() {
+        return QueueBuilder.durable(queueNotificacoesDlq).build();
+    }
+
     // Binding para notificações
     @Bean
     public Binding bindingNotificacoes() {
@@ -43,6 +77,53 @@ public class RabbitMQConfig {
                 .with(routingKeyNotificacoes);
     }
 
+    // Container padrão dos @RabbitListener: substitui o default do Spring Boot
+    // (um único consumidor) por concorrência e prefetch configuráveis
+    @Bean
+    public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        configurarConsumidores(factory);
+        factory.setPrefetchCount(prefetchCount);
+        return factory;
+    }
+
+    // Container para consumo em lote: entrega List<Message> com até batch.size mensagens
+    // (ou o que chegar dentro de receive-timeout) e ack manual do lote inteiro
+    @Bean
+    public SimpleRabbitListenerContainerFactory batchContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        configurarConsumidores(factory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(batchReceiveTimeoutMs);
+        factory.setPrefetchCount(Math.max(batchSize, prefetchCount));
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        return factory;
+    }
+
+    private void configurarConsumidores(SimpleRabbitListenerContainerFactory factory) {
+        factory.setConcurrentConsumers(concurrentConsumers);
+        factory.setMaxConcurrentConsumers(Math.max(concurrentConsumers, maxConcurrentConsumers));
+
+        if (!virtualThreads) {
+            return;
+        }
+        // Virtual threads só existem a partir do JDK 21 (imagem Docker usa Temurin 21)
+        if (Runtime.version().feature() < 21) {
+            logger.warn("app.rabbitmq.listener.virtual-threads habilitado, mas o JDK {} não suporta virtual threads; "
+                + "utilizando threads de plataforma", Runtime.version().feature());
+            return;
+        }
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("notificacao-listener-");
+        executor.setVirtualThreads(true);
+        factory.setTaskExecutor(executor);
+    }
+
     // Configuração do MessageConverter simples para evitar conflitos de tipos
     @Bean
     public org.springframework.amqp.support.converter.MessageConverter messageConverter() {
@@ -54,6 +135,9 @@ public class RabbitMQConfig {
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, org.springframework.amqp.support.converter.MessageConverter messageConverter) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
         template.setMessageConverter(messageConverter);
+        // Template próprio não recebe spring.rabbitmq.template.mandatory: sem isso mensagens sem
+        // fila de destino seriam descartadas em silêncio em vez de devolvidas ao PublisherConfirmTracker
+        template.setMandatory(true);
         return template;
     }
 }
\ No newline at end of file
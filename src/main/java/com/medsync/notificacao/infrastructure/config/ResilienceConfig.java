@@ -0,0 +1,71 @@
+package com.medsync.notificacao.infrastructure.config;
+
+import com.medsync.notificacao.infrastructure.clients.CadastroClientProperties;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+
+@Configuration
+@EnableConfigurationProperties(CadastroClientProperties.class)
+public class ResilienceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResilienceConfig.class);
+
+    private static final String CADASTRO = "cadastro";
+
+    // Aberto, o circuito rejeita as buscas na hora (CallNotPermittedException) em vez de
+    // cada thread esperar o timeout HTTP; erros 4xx não indicam serviço degradado
+    @Bean
+    public CircuitBreaker cadastroCircuitBreaker(CadastroClientProperties properties, MeterRegistry meterRegistry) {
+        CadastroClientProperties.CircuitBreaker config = properties.circuitBreaker();
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+            .failureRateThreshold(config.failureRateThreshold())
+            .slowCallDurationThreshold(Duration.ofMillis(config.slowCallThresholdMs()))
+            .slowCallRateThreshold(config.slowCallRateThreshold())
+            .slidingWindowSize(config.slidingWindowSize())
+            .minimumNumberOfCalls(config.minimumCalls())
+            .waitDurationInOpenState(Duration.ofMillis(config.waitOpenMs()))
+            .permittedNumberOfCallsInHalfOpenState(config.halfOpenCalls())
+            .automaticTransitionFromOpenToHalfOpenEnabled(true)
+            .ignoreExceptions(HttpClientErrorException.class)
+            .build());
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+
+        CircuitBreaker circuitBreaker = registry.circuitBreaker(CADASTRO);
+        circuitBreaker.getEventPublisher().onStateTransition(evento -> {
+            CircuitBreaker.StateTransition transicao = evento.getStateTransition();
+            logger.warn("Circuit breaker do serviço de cadastro: {} -> {}",
+                transicao.getFromState(), transicao.getToState());
+            meterRegistry.counter("notificacao.cadastro.circuitbreaker.transitions",
+                "from", transicao.getFromState().name(),
+                "to", transicao.getToState().name()).increment();
+        });
+        return circuitBreaker;
+    }
+
+    // Limita as requisições simultâneas ao cadastro; acima do limite a busca falha rápido
+    // e cai no fallback, sem ocupar mais threads do listener
+    @Bean
+    public Bulkhead cadastroBulkhead(CadastroClientProperties properties, MeterRegistry meterRegistry) {
+        BulkheadRegistry registry = BulkheadRegistry.of(BulkheadConfig.custom()
+            .maxConcurrentCalls(properties.bulkhead().maxConcurrent())
+            .maxWaitDuration(Duration.ofMillis(properties.bulkhead().maxWaitMs()))
+            .build());
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry.bulkhead(CADASTRO);
+    }
+}
@@ -0,0 +1,49 @@
+package com.medsync.notificacao.infrastructure.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.spring6.templateresolver.SpringResourceTemplateResolver;
+import org.thymeleaf.templatemode.TemplateMode;
+
+import java.util.Set;
+
+@Configuration
+public class TemplateConfig {
+
+    @Value("${app.notificacao.template-path}")
+    private String templatePath;
+
+    @Value("${app.notificacao.templates.cache:true}")
+    private boolean cacheHabilitado;
+
+    // 0 mantém o template em cache até o restart
+    @Value("${app.notificacao.templates.cache-ttl-ms:0}")
+    private long cacheTtlMs;
+
+    // Templates de email (.html) e de texto (.txt) lidos de app.notificacao.template-path e
+    // parseados uma única vez para o cache do Thymeleaf; sem cache (perfil dev) são relidos a cada uso
+    @Bean
+    public SpringTemplateEngine templateEngine(ApplicationContext applicationContext) {
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.addTemplateResolver(criarResolver(applicationContext, TemplateMode.HTML, "*.html", 1));
+        engine.addTemplateResolver(criarResolver(applicationContext, TemplateMode.TEXT, "*.txt", 2));
+        return engine;
+    }
+
+    private SpringResourceTemplateResolver criarResolver(ApplicationContext applicationContext, TemplateMode modo,
+                                                         String padrao, int ordem) {
+        SpringResourceTemplateResolver resolver = new SpringResourceTemplateResolver();
+        resolver.setApplicationContext(applicationContext);
+        resolver.setPrefix(templatePath);
+        resolver.setTemplateMode(modo);
+        resolver.setResolvablePatterns(Set.of(padrao));
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setOrder(ordem);
+        resolver.setCacheable(cacheHabilitado);
+        resolver.setCacheTTLMs(cacheTtlMs > 0 ? cacheTtlMs : null);
+        return resolver;
+    }
+}
@@ -0,0 +1,202 @@
+package com.medsync.notificacao.infrastructure.email;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Micro-batching de envio: agrupa mensagens por até janela-ms ou max-mensagens e envia
+// cada lote por uma única sessão SMTP (JavaMailSender.send(MimeMessage...)).
+// O resultado volta por mensagem via CompletableFuture para a lógica de retentativa.
+// A fila é limitada (capacidade); cheia, vale a mesma política de rejeição do pool de dispatch.
+@Component
+public class EmailBatchSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailBatchSender.class);
+
+    private static final long POLL_OCIOSO_MS = 500;
+
+    private final JavaMailSender mailSender;
+    private final boolean enabled;
+    private final int maxMensagens;
+    private final long janelaMs;
+    private final long shutdownTimeoutMs;
+    private final EmailDispatchExecutor.PoliticaRejeicao politicaRejeicao;
+    private final BlockingQueue<EnvioPendente> fila;
+    private final Counter saturacoes;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean ativo = true;
+
+    public EmailBatchSender(JavaMailSender mailSender,
+                            @Value("${app.notificacao.email.batch.enabled:true}") boolean enabled,
+                            @Value("${app.notificacao.email.batch.max-mensagens:20}") int maxMensagens,
+                            @Value("${app.notificacao.email.batch.janela-ms:200}") long janelaMs,
+                            @Value("${app.notificacao.email.batch.workers:4}") int quantidadeWorkers,
+                            @Value("${app.notificacao.email.batch.capacidade:1000}") int capacidade,
+                            @Value("${app.notificacao.email.dispatch.rejection-policy:CALLER_RUNS}") EmailDispatchExecutor.PoliticaRejeicao politicaRejeicao,
+                            @Value("${app.notificacao.email.dispatch.shutdown-timeout-seconds:30}") int shutdownTimeoutSeconds,
+                            MeterRegistry meterRegistry) {
+        this.mailSender = mailSender;
+        this.enabled = enabled;
+        this.maxMensagens = Math.max(1, maxMensagens);
+        this.janelaMs = janelaMs;
+        this.shutdownTimeoutMs = TimeUnit.SECONDS.toMillis(shutdownTimeoutSeconds);
+        this.politicaRejeicao = politicaRejeicao;
+        this.fila = new ArrayBlockingQueue<>(Math.max(1, capacidade));
+
+        Gauge.builder("notificacao.email.batch.fila", fila, BlockingQueue::size)
+            .description("Emails aguardando para entrar num lote de envio SMTP")
+            .register(meterRegistry);
+        this.saturacoes = Counter.builder("notificacao.email.batch.saturado")
+            .description("Envios que encontraram a fila do envio em lote cheia (enviados na chamadora ou recusados)")
+            .register(meterRegistry);
+
+        if (enabled) {
+            for (int i = 0; i < quantidadeWorkers; i++) {
+                Thread worker = new Thread(this::processarFila, "email-batch-" + i);
+                worker.setDaemon(true);
+                worker.start();
+                workers.add(worker);
+            }
+            logger.info("Envio de emails em lote habilitado - até {} mensagens ou {} ms por lote, {} workers",
+                this.maxMensagens, janelaMs, quantidadeWorkers);
+        }
+    }
+
+    public CompletableFuture<Void> enviar(MimeMessage message) {
+        if (!enabled) {
+            return enviarIndividual(message);
+        }
+        if (!ativo) {
+            return CompletableFuture.failedFuture(new MailSendException("Envio de emails em lote encerrado"));
+        }
+
+        CompletableFuture<Void> resultado = new CompletableFuture<>();
+        if (fila.offer(new EnvioPendente(message, resultado))) {
+            return resultado;
+        }
+
+        saturacoes.increment();
+        if (politicaRejeicao == EmailDispatchExecutor.PoliticaRejeicao.CALLER_RUNS) {
+            // Envia fora de lote na thread do pool de dispatch, segurando a produção de novos envios
+            logger.warn("Fila do envio em lote cheia ({} emails), enviando na thread chamadora", fila.size());
+            return enviarIndividual(message);
+        }
+        // Falha sem código SMTP: classificada como transitória e retentada com backoff
+        logger.warn("Fila do envio em lote cheia ({} emails), envio recusado", fila.size());
+        return CompletableFuture.failedFuture(new MailSendException("Fila de envio de emails em lote cheia"));
+    }
+
+    public int pendentes() {
+        return fila.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ativo = false;
+        long limite = System.currentTimeMillis() + shutdownTimeoutMs;
+        for (Thread worker : workers) {
+            try {
+                worker.join(Math.max(1, limite - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        EnvioPendente pendente;
+        while ((pendente = fila.poll()) != null) {
+            pendente.resultado().completeExceptionally(new MailSendException("Envio de emails em lote encerrado"));
+        }
+    }
+
+    private CompletableFuture<Void> enviarIndividual(MimeMessage message) {
+        try {
+            mailSender.send(message);
+            return CompletableFuture.completedFuture(null);
+        } catch (MailException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void processarFila() {
+        while (ativo || !fila.isEmpty()) {
+            try {
+                EnvioPendente primeiro = fila.poll(POLL_OCIOSO_MS, TimeUnit.MILLISECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+
+                List<EnvioPendente> lote = new ArrayList<>(maxMensagens);
+                lote.add(primeiro);
+                long prazo = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(janelaMs);
+                while (lote.size() < maxMensagens) {
+                    long restante = prazo - System.nanoTime();
+                    EnvioPendente proximo = restante > 0 ? fila.poll(restante, TimeUnit.NANOSECONDS) : fila.poll();
+                    if (proximo == null) {
+                        break;
+                    }
+                    lote.add(proximo);
+                }
+
+                enviarLote(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Erro inesperado no worker de envio de emails em lote", e);
+            }
+        }
+    }
+
+    private void enviarLote(List<EnvioPendente> lote) {
+        MimeMessage[] mensagens = new MimeMessage[lote.size()];
+        for (int i = 0; i < lote.size(); i++) {
+            mensagens[i] = lote.get(i).message();
+        }
+
+        try {
+            mailSender.send(mensagens);
+            lote.forEach(envio -> envio.resultado().complete(null));
+            logger.debug("Lote de {} emails enviado", lote.size());
+
+        } catch (MailSendException e) {
+            Map<Object, Exception> falhas = e.getFailedMessages();
+            if (falhas.isEmpty()) {
+                lote.forEach(envio -> envio.resultado().completeExceptionally(e));
+                return;
+            }
+            // Cada mensagem recebe apenas a sua própria falha, para a classificação transitória/permanente
+            for (EnvioPendente envio : lote) {
+                Exception falha = falhas.get(envio.message());
+                if (falha == null) {
+                    envio.resultado().complete(null);
+                } else {
+                    envio.resultado().completeExceptionally(new MailSendException(Map.of(envio.message(), falha)));
+                }
+            }
+            logger.debug("Lote de {} emails enviado com {} falhas", lote.size(), falhas.size());
+
+        } catch (MailException e) {
+            lote.forEach(envio -> envio.resultado().completeExceptionally(e));
+        }
+    }
+
+    private record EnvioPendente(MimeMessage message, CompletableFuture<Void> resultado) {}
+}
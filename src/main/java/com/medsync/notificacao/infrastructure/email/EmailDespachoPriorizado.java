@@ -0,0 +1,269 @@
+package com.medsync.notificacao.infrastructure.email;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Estágio entre quem pede o envio (listener e agendador de lembretes) e o pool de dispatch.
+// Consultas marcam em :00 e :30, então os lembretes de 24h/2h/1h venceriam todos no mesmo
+// segundo e estourariam o limite de envio do SMTP (Gmail). Aqui:
+//  - lembretes recebem um atraso aleatório de até jitter-lembrete-ms, espalhando o pico;
+//  - um token bucket (taxa-por-segundo, rajada) limita a entrega ao pool de dispatch;
+//  - a fila é por prioridade: emails de consulta criada/editada passam na frente dos
+//    lembretes próximos, que passam na frente dos de 24h;
+//  - novas tentativas após falha SMTP esperam o backoff aqui e também passam pelo token bucket,
+//    com a prioridade do envio original.
+// O histograma notificacao.email.despacho.lag mede a espera na fila a partir da liberação
+// do jitter, ou seja, só o atraso causado pelo limite de taxa.
+@Component
+@DependsOn("emailDispatchExecutor")
+public class EmailDespachoPriorizado {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailDespachoPriorizado.class);
+
+    private static final long INTERVALO_POLL_MS = 50;
+
+    public enum Prioridade {
+        TRANSACIONAL,
+        LEMBRETE_PROXIMO,
+        LEMBRETE
+    }
+
+    private record Pendente(Prioridade prioridade, long sequencia, long liberadoEmNanos, Runnable tarefa) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(liberadoEmNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed outro) {
+            return Long.compare(liberadoEmNanos, ((Pendente) outro).liberadoEmNanos);
+        }
+    }
+
+    private static final Comparator<Pendente> ORDEM_PRIORIDADE =
+        Comparator.comparing(Pendente::prioridade).thenComparingLong(Pendente::sequencia);
+
+    private final EmailDispatchExecutor dispatchExecutor;
+    private final boolean enabled;
+    private final double taxaPorSegundo;
+    private final double rajada;
+    private final long jitterLembreteMs;
+    private final int lembreteProximoHoras;
+    private final int capacidade;
+
+    private final DelayQueue<Pendente> aguardandoJitter = new DelayQueue<>();
+    private final PriorityBlockingQueue<Pendente> prontos = new PriorityBlockingQueue<>(64, ORDEM_PRIORIDADE);
+    private final AtomicLong sequencia = new AtomicLong();
+    private final AtomicInteger tamanho = new AtomicInteger();
+    private final Map<Prioridade, Timer> lag = new EnumMap<>(Prioridade.class);
+    private final Counter transbordos;
+    private final Thread despachante;
+    private volatile boolean ativo = true;
+
+    // Estado do token bucket: só a thread despachante acessa
+    private double tokens;
+    private long ultimaRecargaNanos;
+
+    public EmailDespachoPriorizado(EmailDispatchExecutor dispatchExecutor,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.notificacao.email.despacho.enabled:true}") boolean enabled,
+                                   @Value("${app.notificacao.email.despacho.taxa-por-segundo:5}") double taxaPorSegundo,
+                                   @Value("${app.notificacao.email.despacho.rajada:10}") int rajada,
+                                   @Value("${app.notificacao.email.despacho.jitter-lembrete-ms:120000}") long jitterLembreteMs,
+                                   @Value("${app.notificacao.email.despacho.lembrete-proximo-horas:2}") int lembreteProximoHoras,
+                                   @Value("${app.notificacao.email.despacho.capacidade:10000}") int capacidade) {
+        if (enabled && taxaPorSegundo <= 0) {
+            throw new IllegalArgumentException(
+                "app.notificacao.email.despacho.taxa-por-segundo deve ser maior que zero: " + taxaPorSegundo);
+        }
+        this.dispatchExecutor = dispatchExecutor;
+        this.enabled = enabled;
+        this.taxaPorSegundo = taxaPorSegundo;
+        this.rajada = Math.max(1, rajada);
+        this.jitterLembreteMs = Math.max(0, jitterLembreteMs);
+        this.lembreteProximoHoras = lembreteProximoHoras;
+        this.capacidade = capacidade;
+        this.tokens = this.rajada;
+        this.ultimaRecargaNanos = System.nanoTime();
+
+        for (Prioridade prioridade : Prioridade.values()) {
+            lag.put(prioridade, Timer.builder("notificacao.email.despacho.lag")
+                .description("Espera na fila de despacho de emails após a liberação do jitter")
+                .tag("prioridade", prioridade.name().toLowerCase())
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        }
+        Gauge.builder("notificacao.email.despacho.fila", tamanho, AtomicInteger::get)
+            .description("Emails aguardando jitter ou token no estágio de despacho")
+            .register(meterRegistry);
+        this.transbordos = Counter.builder("notificacao.email.despacho.transbordo")
+            .description("Emails entregues direto ao pool de dispatch com a fila de despacho cheia")
+            .register(meterRegistry);
+
+        this.despachante = new Thread(this::despachar, "email-despacho");
+        despachante.setDaemon(true);
+        if (enabled) {
+            despachante.start();
+            logger.info("Despacho de emails limitado a {}/s (rajada {}), jitter de lembretes até {} ms",
+                taxaPorSegundo, rajada, jitterLembreteMs);
+        }
+    }
+
+    public Prioridade prioridadeLembrete(int horasAntecedencia) {
+        return horasAntecedencia <= lembreteProximoHoras ? Prioridade.LEMBRETE_PROXIMO : Prioridade.LEMBRETE;
+    }
+
+    public void submeter(Prioridade prioridade, Runnable tarefa) {
+        if (!enabled) {
+            dispatchExecutor.execute(tarefa);
+            return;
+        }
+        long jitterMs = prioridade == Prioridade.TRANSACIONAL || jitterLembreteMs == 0
+            ? 0 : ThreadLocalRandom.current().nextLong(jitterLembreteMs + 1);
+        enfileirar(prioridade, tarefa, jitterMs, 0);
+    }
+
+    // Nova tentativa após o backoff: sem jitter adicional, mas sujeita ao limite de taxa
+    public void resubmeter(Prioridade prioridade, Runnable tarefa, long atrasoMs) {
+        if (!enabled) {
+            dispatchExecutor.agendar(tarefa, atrasoMs);
+            return;
+        }
+        enfileirar(prioridade, tarefa, Math.max(0, atrasoMs), Math.max(0, atrasoMs));
+    }
+
+    public int pendentes() {
+        return tamanho.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!enabled) {
+            return;
+        }
+        ativo = false;
+        despachante.interrupt();
+        try {
+            despachante.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Pendentes são entregues ao pool sem jitter nem limite de taxa antes do encerramento
+        List<Pendente> restantes = new ArrayList<>();
+        prontos.drainTo(restantes);
+        restantes.addAll(aguardandoJitter);
+        aguardandoJitter.clear();
+        restantes.sort(ORDEM_PRIORIDADE);
+        logger.info("Encerrando despacho de emails ({} pendentes entregues ao pool)", restantes.size());
+        for (Pendente pendente : restantes) {
+            entregar(pendente);
+        }
+    }
+
+    // atrasoMinimoMs: espera que não pode ser pulada nem no transbordo (backoff de nova tentativa)
+    private void enfileirar(Prioridade prioridade, Runnable tarefa, long atrasoMs, long atrasoMinimoMs) {
+        if (!ativo) {
+            throw new RejectedExecutionException("Despacho de emails encerrado");
+        }
+        if (tamanho.incrementAndGet() > capacidade) {
+            // Fila cheia: segue direto para o pool, que aplica a própria política de rejeição
+            tamanho.decrementAndGet();
+            transbordos.increment();
+            if (atrasoMinimoMs > 0) {
+                dispatchExecutor.agendar(tarefa, atrasoMinimoMs);
+            } else {
+                dispatchExecutor.execute(tarefa);
+            }
+            return;
+        }
+
+        Pendente pendente = new Pendente(prioridade, sequencia.incrementAndGet(),
+            System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(atrasoMs), tarefa);
+        if (atrasoMs == 0) {
+            prontos.add(pendente);
+        } else {
+            aguardandoJitter.add(pendente);
+        }
+    }
+
+    private void despachar() {
+        while (ativo) {
+            Pendente pendente = null;
+            try {
+                aguardandoJitter.drainTo(prontos);
+                pendente = prontos.poll(INTERVALO_POLL_MS, TimeUnit.MILLISECONDS);
+                if (pendente == null) {
+                    continue;
+                }
+                adquirirToken();
+
+                // Durante a espera pelo token pode ter chegado algo mais prioritário
+                aguardandoJitter.drainTo(prontos);
+                Pendente primeiro = prontos.peek();
+                if (primeiro != null && ORDEM_PRIORIDADE.compare(primeiro, pendente) < 0) {
+                    prontos.add(pendente);
+                    pendente = prontos.poll();
+                }
+                entregar(pendente);
+            } catch (InterruptedException e) {
+                // Retirado da fila mas ainda sem token: volta para ser entregue no encerramento
+                if (pendente != null) {
+                    prontos.add(pendente);
+                }
+                if (ativo) {
+                    logger.warn("Thread de despacho de emails interrompida");
+                }
+                return;
+            } catch (Exception e) {
+                logger.error("Erro no despacho de emails", e);
+            }
+        }
+    }
+
+    private void entregar(Pendente pendente) {
+        tamanho.decrementAndGet();
+        lag.get(pendente.prioridade()).record(Math.max(0, System.nanoTime() - pendente.liberadoEmNanos()), TimeUnit.NANOSECONDS);
+        try {
+            dispatchExecutor.execute(pendente.tarefa());
+        } catch (RejectedExecutionException e) {
+            logger.error("Email descartado: pool de envio indisponível", e);
+        }
+    }
+
+    private void adquirirToken() throws InterruptedException {
+        while (true) {
+            long agora = System.nanoTime();
+            tokens = Math.min(rajada, tokens + (agora - ultimaRecargaNanos) * taxaPorSegundo / 1_000_000_000d);
+            ultimaRecargaNanos = agora;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return;
+            }
+            TimeUnit.NANOSECONDS.sleep((long) ((1 - tokens) * 1_000_000_000d / taxaPorSegundo));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.medsync.notificacao.infrastructure.email;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Pool dedicado ao envio de emails, isolado do ForkJoinPool comum: fila limitada,
+// backpressure explícito e desligamento gracioso para não perder emails no restart do pod.
+// Retentativas ficam num timer e só ocupam uma thread do pool quando disparam.
+// Depende do envio em lote e do mailSender para ser encerrado antes deles: os emails pendentes ainda são enviados
+@Component
+@DependsOn({"mailSender", "emailBatchSender"})
+public class EmailDispatchExecutor implements Executor {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailDispatchExecutor.class);
+
+    public enum PoliticaRejeicao {
+        // Executa na thread chamadora (listener), desacelerando o consumo da fila
+        CALLER_RUNS,
+        // Rejeita o envio com RejectedExecutionException
+        ABORT
+    }
+
+    private final ThreadPoolTaskExecutor executor;
+    private final ScheduledThreadPoolExecutor retryScheduler;
+    private final Set<Runnable> retriesAgendados = ConcurrentHashMap.newKeySet();
+    private final Counter saturacoes;
+
+    public EmailDispatchExecutor(@Value("${app.notificacao.email.dispatch.core-pool-size:2}") int corePoolSize,
+                                 @Value("${app.notificacao.email.dispatch.max-pool-size:4}") int maxPoolSize,
+                                 @Value("${app.notificacao.email.dispatch.queue-capacity:500}") int queueCapacity,
+                                 @Value("${app.notificacao.email.dispatch.rejection-policy:CALLER_RUNS}") PoliticaRejeicao politicaRejeicao,
+                                 @Value("${app.notificacao.email.dispatch.shutdown-timeout-seconds:30}") int shutdownTimeoutSeconds,
+                                 MeterRegistry meterRegistry) {
+        this.saturacoes = Counter.builder("notificacao.email.dispatch.saturated")
+                .description("Envios que encontraram a fila do pool de dispatch cheia (executados na chamadora ou recusados)")
+                .register(meterRegistry);
+
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("email-dispatch-");
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(Math.max(corePoolSize, maxPoolSize));
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(criarPoliticaRejeicao(politicaRejeicao));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(shutdownTimeoutSeconds);
+        executor.initialize();
+
+        this.retryScheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "email-retry-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        retryScheduler.setRemoveOnCancelPolicy(true);
+
+        Gauge.builder("notificacao.email.dispatch.queue.depth", executor,
+                        e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Emails aguardando na fila do pool de dispatch")
+                .register(meterRegistry);
+        Gauge.builder("notificacao.email.dispatch.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Threads do pool de dispatch enviando emails")
+                .register(meterRegistry);
+        Gauge.builder("notificacao.email.retry.scheduled", retriesAgendados, Set::size)
+                .description("Retentativas de email aguardando o backoff")
+                .register(meterRegistry);
+
+        logger.info("Pool de envio de emails iniciado - core: {}, max: {}, fila: {}, política: {}",
+            corePoolSize, maxPoolSize, queueCapacity, politicaRejeicao);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    // Agenda a tarefa para depois do delay sem segurar nenhuma thread durante a espera
+    public void agendar(Runnable task, long delayMs) {
+        retriesAgendados.add(task);
+        try {
+            retryScheduler.schedule(() -> {
+                if (retriesAgendados.remove(task)) {
+                    submeterRetry(task);
+                }
+            }, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            retriesAgendados.remove(task);
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryScheduler.shutdownNow();
+
+        // Retentativas ainda em backoff ganham uma última tentativa antes do encerramento
+        int retriesAntecipados = 0;
+        for (Runnable task : Set.copyOf(retriesAgendados)) {
+            if (retriesAgendados.remove(task)) {
+                submeterRetry(task);
+                retriesAntecipados++;
+            }
+        }
+
+        int pendentes = executor.getThreadPoolExecutor().getQueue().size();
+        logger.info("Encerrando pool de envio de emails ({} pendentes na fila, {} retentativas antecipadas)",
+            pendentes, retriesAntecipados);
+        executor.shutdown();
+    }
+
+    private void submeterRetry(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            logger.error("Retentativa de email descartada: pool de envio indisponível", e);
+        }
+    }
+
+    private RejectedExecutionHandler criarPoliticaRejeicao(PoliticaRejeicao politica) {
+        RejectedExecutionHandler delegate = politica == PoliticaRejeicao.ABORT
+                ? new ThreadPoolExecutor.AbortPolicy()
+                : new ThreadPoolExecutor.CallerRunsPolicy();
+
+        return (task, pool) -> {
+            saturacoes.increment();
+            if (pool.isShutdown()) {
+                throw new RejectedExecutionException("Pool de envio de emails encerrado");
+            }
+            delegate.rejectedExecution(task, pool);
+        };
+    }
+}
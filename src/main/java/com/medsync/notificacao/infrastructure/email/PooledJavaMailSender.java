@@ -0,0 +1,101 @@
+package com.medsync.notificacao.infrastructure.email;
+
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.Nullable;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// JavaMailSenderImpl abre, autentica e fecha uma conexão SMTP a cada send().
+// Aqui as mensagens usam conexões persistentes emprestadas do SmtpTransportPool.
+public class PooledJavaMailSender extends JavaMailSenderImpl implements DisposableBean {
+
+    private final SmtpTransportPool pool;
+
+    public PooledJavaMailSender(int tamanhoPool, long maxIdleMs, long borrowTimeoutMs) {
+        this.pool = new SmtpTransportPool(this::connectTransport, tamanhoPool, maxIdleMs, borrowTimeoutMs);
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, @Nullable Object[] originalMessages) throws MailException {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        SmtpTransportPool.Conexao conexao = null;
+
+        try {
+            for (int i = 0; i < mimeMessages.length; i++) {
+                if (conexao == null) {
+                    try {
+                        conexao = pool.emprestar();
+                    } catch (AuthenticationFailedException ex) {
+                        throw new MailAuthenticationException(ex);
+                    } catch (Exception ex) {
+                        // Sem conexão, todas as mensagens restantes falham
+                        for (int j = i; j < mimeMessages.length; j++) {
+                            failedMessages.put(original(mimeMessages, originalMessages, j), ex);
+                        }
+                        throw new MailSendException("Mail server connection failed", ex, failedMessages);
+                    }
+                }
+
+                MimeMessage mimeMessage = mimeMessages[i];
+                try {
+                    if (mimeMessage.getSentDate() == null) {
+                        mimeMessage.setSentDate(new Date());
+                    }
+                    String messageId = mimeMessage.getMessageID();
+                    mimeMessage.saveChanges();
+                    if (messageId != null) {
+                        // Preserva o Message-ID explícito, que saveChanges() regenera
+                        mimeMessage.setHeader("Message-ID", messageId);
+                    }
+                    Address[] addresses = mimeMessage.getAllRecipients();
+                    conexao.transport().sendMessage(mimeMessage, addresses != null ? addresses : new Address[0]);
+                } catch (Exception ex) {
+                    failedMessages.put(original(mimeMessages, originalMessages, i), ex);
+                    // Recusa de destinatário mantém a sessão válida; qualquer outra falha com a
+                    // conexão caída descarta o transport e reconecta para as próximas mensagens
+                    if (!(ex instanceof SendFailedException) && !conexao.transport().isConnected()) {
+                        pool.devolver(conexao, false);
+                        conexao = null;
+                    }
+                }
+            }
+        } finally {
+            if (conexao != null) {
+                pool.devolver(conexao, true);
+            }
+        }
+
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.notificacao.email.smtp-pool.eviction-interval-ms:30000}")
+    public void removerConexoesOciosas() {
+        pool.removerOciosas();
+    }
+
+    public int conexoesOciosas() {
+        return pool.conexoesOciosas();
+    }
+
+    @Override
+    public void destroy() {
+        pool.close();
+    }
+
+    private Object original(MimeMessage[] mimeMessages, @Nullable Object[] originalMessages, int indice) {
+        return originalMessages != null ? originalMessages[indice] : mimeMessages[indice];
+    }
+}
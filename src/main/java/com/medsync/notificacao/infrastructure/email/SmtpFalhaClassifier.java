@@ -0,0 +1,71 @@
+package com.medsync.notificacao.infrastructure.email;
+
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.internet.AddressException;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSenderFailedException;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+
+import java.io.UnsupportedEncodingException;
+
+// Classifica falhas de envio: respostas SMTP 4xx (e erros de conexão/IO) são transitórias
+// e podem ser retentadas; 5xx, autenticação e mensagens malformadas são permanentes
+public final class SmtpFalhaClassifier {
+
+    private static final int PROFUNDIDADE_MAXIMA = 10;
+
+    private SmtpFalhaClassifier() {
+    }
+
+    public static boolean isTransitoria(Throwable erro) {
+        if (erro instanceof MailSendException mailSendException && !mailSendException.getFailedMessages().isEmpty()) {
+            // Falha por mensagem: basta uma causa permanente para não retentar
+            for (Exception causa : mailSendException.getFailedMessages().values()) {
+                if (!isTransitoria(causa)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        Throwable atual = erro;
+        for (int i = 0; atual != null && i < PROFUNDIDADE_MAXIMA; i++) {
+            if (atual instanceof MailAuthenticationException
+                    || atual instanceof MailParseException
+                    || atual instanceof MailPreparationException
+                    || atual instanceof AuthenticationFailedException
+                    || atual instanceof AddressException
+                    || atual instanceof UnsupportedEncodingException) {
+                return false;
+            }
+
+            int codigoSmtp = extrairCodigoSmtp(atual);
+            if (codigoSmtp >= 400) {
+                return codigoSmtp < 500;
+            }
+
+            // MessagingException encadeia a próxima exceção via getCause()
+            atual = atual.getCause() != atual ? atual.getCause() : null;
+        }
+
+        // Sem código SMTP: timeout, conexão recusada, IO... tratados como transitórios
+        return true;
+    }
+
+    private static int extrairCodigoSmtp(Throwable erro) {
+        if (erro instanceof SMTPAddressFailedException e) {
+            return e.getReturnCode();
+        }
+        if (erro instanceof SMTPSenderFailedException e) {
+            return e.getReturnCode();
+        }
+        if (erro instanceof SMTPSendFailedException e) {
+            return e.getReturnCode();
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,134 @@
+package com.medsync.notificacao.infrastructure.email;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Pool de conexões SMTP já autenticadas (STARTTLS + AUTH feitos uma única vez por conexão).
+// No máximo "tamanho" conexões emprestadas ao mesmo tempo; conexões são validadas no
+// empréstimo e fechadas quando ficam ociosas além de maxIdleMs.
+public class SmtpTransportPool implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmtpTransportPool.class);
+
+    @FunctionalInterface
+    public interface TransportFactory {
+        Transport conectar() throws MessagingException;
+    }
+
+    public static final class Conexao {
+        private final Transport transport;
+        private volatile long ultimoUso;
+
+        private Conexao(Transport transport) {
+            this.transport = transport;
+            this.ultimoUso = System.currentTimeMillis();
+        }
+
+        public Transport transport() {
+            return transport;
+        }
+    }
+
+    private final TransportFactory factory;
+    private final long maxIdleMs;
+    private final long borrowTimeoutMs;
+    private final Semaphore permissoes;
+    // LIFO: a conexão devolvida mais recentemente é a primeira reutilizada
+    private final BlockingDeque<Conexao> ociosas = new LinkedBlockingDeque<>();
+    private volatile boolean fechado;
+
+    public SmtpTransportPool(TransportFactory factory, int tamanho, long maxIdleMs, long borrowTimeoutMs) {
+        this.factory = factory;
+        this.maxIdleMs = maxIdleMs;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.permissoes = new Semaphore(tamanho, true);
+    }
+
+    public Conexao emprestar() throws MessagingException {
+        if (fechado) {
+            throw new MessagingException("Pool de conexões SMTP encerrado");
+        }
+        try {
+            if (!permissoes.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("Timeout aguardando conexão SMTP disponível no pool");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrompido aguardando conexão SMTP", e);
+        }
+
+        try {
+            Conexao conexao;
+            while ((conexao = ociosas.pollFirst()) != null) {
+                // isConnected() envia um NOOP ao servidor: valida a sessão antes de reutilizá-la
+                if (!expirou(conexao) && conexao.transport.isConnected()) {
+                    return conexao;
+                }
+                fechar(conexao);
+            }
+            logger.debug("Abrindo nova conexão SMTP para o pool");
+            return new Conexao(factory.conectar());
+        } catch (MessagingException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    public void devolver(Conexao conexao, boolean reutilizavel) {
+        try {
+            if (reutilizavel && !fechado) {
+                conexao.ultimoUso = System.currentTimeMillis();
+                ociosas.offerFirst(conexao);
+            } else {
+                fechar(conexao);
+            }
+        } finally {
+            permissoes.release();
+        }
+    }
+
+    public void removerOciosas() {
+        // As mais antigas ficam no fim da fila
+        Iterator<Conexao> iterator = ociosas.descendingIterator();
+        while (iterator.hasNext()) {
+            Conexao conexao = iterator.next();
+            if (expirou(conexao) && ociosas.remove(conexao)) {
+                logger.debug("Fechando conexão SMTP ociosa");
+                fechar(conexao);
+            }
+        }
+    }
+
+    public int conexoesOciosas() {
+        return ociosas.size();
+    }
+
+    @Override
+    public void close() {
+        fechado = true;
+        Conexao conexao;
+        while ((conexao = ociosas.pollFirst()) != null) {
+            fechar(conexao);
+        }
+    }
+
+    private boolean expirou(Conexao conexao) {
+        return System.currentTimeMillis() - conexao.ultimoUso > maxIdleMs;
+    }
+
+    private void fechar(Conexao conexao) {
+        try {
+            conexao.transport.close();
+        } catch (MessagingException e) {
+            logger.debug("Erro ao fechar conexão SMTP: {}", e.getMessage());
+        }
+    }
+}
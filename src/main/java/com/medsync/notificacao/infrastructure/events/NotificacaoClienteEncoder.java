@@ -0,0 +1,77 @@
+package com.medsync.notificacao.infrastructure.events;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medsync.notificacao.presentation.dto.NotificacaoRequest;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+
+// Codifica a notificação para o cliente em JSON com nomes de campo fixos (snake_case, como os
+// eventos recebidos) e versão de schema explícita. Escreve campo a campo com o JsonGenerator,
+// sem reflexão, num buffer reaproveitado por thread.
+@Component
+public class NotificacaoClienteEncoder {
+
+    public static final int VERSAO_SCHEMA = 1;
+
+    // Tamanho típico da notificação com a mensagem de texto completa
+    private static final int TAMANHO_INICIAL_BUFFER = 2048;
+
+    private static final ThreadLocal<ByteArrayBuilder> BUFFER =
+        ThreadLocal.withInitial(() -> new ByteArrayBuilder(TAMANHO_INICIAL_BUFFER));
+
+    private final JsonFactory jsonFactory;
+
+    public NotificacaoClienteEncoder(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    public byte[] encode(NotificacaoRequest notificacao) {
+        ByteArrayBuilder buffer = BUFFER.get();
+        buffer.reset();
+        try (JsonGenerator gerador = jsonFactory.createGenerator(buffer)) {
+            gerador.writeStartObject();
+            gerador.writeNumberField("versao", VERSAO_SCHEMA);
+            escreverUuid(gerador, "consulta_id", notificacao.consultaId());
+            gerador.writeStringField("tipo_notificacao", notificacao.tipoNotificacao());
+            gerador.writeStringField("titulo", notificacao.titulo());
+            gerador.writeStringField("mensagem", notificacao.mensagem());
+            gerador.writeStringField("paciente_nome", notificacao.pacienteNome());
+            gerador.writeStringField("paciente_email", notificacao.pacienteEmail());
+            gerador.writeStringField("paciente_telefone", notificacao.pacienteTelefone());
+            gerador.writeStringField("medico_nome", notificacao.medicoNome());
+            gerador.writeStringField("medico_email", notificacao.medicoEmail());
+            gerador.writeStringField("medico_telefone", notificacao.medicoTelefone());
+            escreverDataHora(gerador, "data_hora", notificacao.dataHora());
+            escreverDataHora(gerador, "timestamp", notificacao.timestamp());
+            gerador.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao serializar notificação para o cliente", e);
+        }
+        // O generator já foi fechado (flush); o buffer volta a ser reutilizado na próxima chamada
+        return buffer.toByteArray();
+    }
+
+    private void escreverUuid(JsonGenerator gerador, String campo, UUID valor) throws IOException {
+        if (valor == null) {
+            gerador.writeNullField(campo);
+        } else {
+            gerador.writeStringField(campo, valor.toString());
+        }
+    }
+
+    private void escreverDataHora(JsonGenerator gerador, String campo, LocalDateTime valor) throws IOException {
+        if (valor == null) {
+            gerador.writeNullField(campo);
+        } else {
+            gerador.writeStringField(campo, DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(valor));
+        }
+    }
+}
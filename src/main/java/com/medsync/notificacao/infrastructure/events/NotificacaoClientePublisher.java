@@ -0,0 +1,256 @@
+package com.medsync.notificacao.infrastructure.events;
+
+import com.medsync.notificacao.infrastructure.metrics.LatenciaEstagios;
+import com.medsync.notificacao.presentation.dto.NotificacaoRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.AbstractConnectionFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.ThreadChannelConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// Publica as notificações para o cliente em ex_consultas (notificacao.cliente.<consultaId>).
+// O formato é escolhido por app.rabbitmq.cliente.content-type: "java" (serialização Java legada,
+// padrão enquanto houver consumidores que só a entendem) ou "json" (compacto, legível por
+// qualquer consumidor), a ser ligado depois que os consumidores migrarem.
+// O modo de envio (app.rabbitmq.cliente.publicacao.modo) troca confirmação por mensagem
+// por vazão, útil para recuperar o atraso depois de um failover do broker:
+//  - padrao: canal do cache compartilhado e confirmação acompanhada pelo PublisherConfirmTracker
+//  - lote: agrupa por tamanho/bytes/janela numa única mensagem AMQP cujo corpo é um array JSON
+//    com as notificações (content type application/vnd.medsync.notificacoes-lote+json, header
+//    x-lote-itens), na routing key comum notificacao.cliente.lote; o consulta_id segue em cada
+//    item. O lote é confirmado e republicado pelo PublisherConfirmTracker. Só no formato json.
+//  - thread-channel: um canal dedicado por thread publicadora (ThreadChannelConnectionFactory),
+//    sem disputa pelos canais do cache. Essa factory não correlaciona confirms nem entrega
+//    devoluções, então não há confirmação nem republicação: o modo só sobe com
+//    publisher-confirm-type none e publisher-returns false, abrindo mão explicitamente da
+//    garantia de entrega.
+@Component
+public class NotificacaoClientePublisher implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificacaoClientePublisher.class);
+
+    public static final String ROUTING_KEY_PREFIXO = "notificacao.cliente.";
+    public static final String ROUTING_KEY_LOTE = ROUTING_KEY_PREFIXO + "lote";
+    public static final String HEADER_VERSAO_SCHEMA = "x-schema-versao";
+    public static final String HEADER_LOTE_ITENS = "x-lote-itens";
+    public static final String CONTENT_TYPE_LOTE = "application/vnd.medsync.notificacoes-lote+json";
+
+    public enum Formato { JSON, JAVA }
+
+    public enum ModoPublicacao { PADRAO, LOTE, THREAD_CHANNEL }
+
+    private final RabbitTemplate rabbitTemplate;
+    private final NotificacaoClienteEncoder encoder;
+    private final PublisherConfirmTracker confirmTracker;
+    private final String exchangeConsultas;
+    private final Formato formato;
+    private final ModoPublicacao modo;
+    private final Timer tempoPublicacao;
+    private final LatenciaEstagios latencia;
+
+    private int loteTamanho;
+    private int loteBufferBytes;
+    private long loteJanelaMs;
+    // Estado do lote em formação: acesso sob synchronized (this)
+    private List<byte[]> lote;
+    private int loteBytes;
+    private ScheduledFuture<?> envioLoteAgendado;
+    private ScheduledExecutorService agendadorLote;
+    private ThreadChannelConnectionFactory threadChannelConnectionFactory;
+    private RabbitTemplate threadChannelTemplate;
+
+    public NotificacaoClientePublisher(RabbitTemplate rabbitTemplate,
+                                       NotificacaoClienteEncoder encoder,
+                                       PublisherConfirmTracker confirmTracker,
+                                       ConnectionFactory connectionFactory,
+                                       MeterRegistry meterRegistry,
+                                       LatenciaEstagios latencia,
+                                       @Value("${app.rabbitmq.exchange-consultas}") String exchangeConsultas,
+                                       @Value("${app.rabbitmq.cliente.content-type:java}") String contentType,
+                                       @Value("${app.rabbitmq.cliente.publicacao.modo:padrao}") String modo,
+                                       @Value("${app.rabbitmq.cliente.publicacao.lote-tamanho:50}") int loteTamanho,
+                                       @Value("${app.rabbitmq.cliente.publicacao.lote-buffer-bytes:262144}") int loteBufferBytes,
+                                       @Value("${app.rabbitmq.cliente.publicacao.lote-janela-ms:50}") long loteJanelaMs) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.encoder = encoder;
+        this.confirmTracker = confirmTracker;
+        this.latencia = latencia;
+        this.exchangeConsultas = exchangeConsultas;
+        this.formato = Formato.valueOf(contentType.trim().toUpperCase());
+        this.modo = configurarModo(ModoPublicacao.valueOf(modo.trim().replace('-', '_').toUpperCase()),
+            connectionFactory, loteTamanho, loteBufferBytes, loteJanelaMs);
+        this.tempoPublicacao = Timer.builder("notificacao.rabbitmq.publish")
+            .description("Tempo de envio das notificações para o cliente")
+            .tag("modo", this.modo.name().toLowerCase())
+            .register(meterRegistry);
+        logger.info("Notificações para o cliente publicadas no formato {}, modo {}", formato, this.modo);
+    }
+
+    // Não bloqueia esperando o broker: a confirmação (e eventual republicação) fica com o tracker
+    public void publicar(NotificacaoRequest notificacao) {
+        long inicio = System.nanoTime();
+        String routingKey = ROUTING_KEY_PREFIXO + notificacao.consultaId();
+        Message message = formato == Formato.JAVA
+            ? rabbitTemplate.getMessageConverter().toMessage(notificacao, new MessageProperties())
+            : criarMensagem(notificacao);
+
+        tempoPublicacao.record(() -> {
+            switch (modo) {
+                case LOTE -> adicionarAoLote(message.getBody());
+                case THREAD_CHANNEL -> threadChannelTemplate.send(exchangeConsultas, routingKey, message);
+                default -> confirmTracker.publicar(exchangeConsultas, routingKey, message);
+            }
+        });
+        // Inclui a serialização, que o timer por modo não cobre
+        latencia.registrar(LatenciaEstagios.Estagio.PUBLICACAO_AMQP, notificacao.tipoNotificacao(), inicio);
+    }
+
+    @Override
+    public void destroy() {
+        if (agendadorLote != null) {
+            agendadorLote.shutdownNow();
+            // Envia o lote parcial antes de encerrar
+            enviarLote();
+        }
+        if (threadChannelConnectionFactory != null) {
+            threadChannelConnectionFactory.destroy();
+        }
+    }
+
+    Message criarMensagem(NotificacaoRequest notificacao) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        properties.setType(notificacao.tipoNotificacao());
+        properties.setHeader(HEADER_VERSAO_SCHEMA, NotificacaoClienteEncoder.VERSAO_SCHEMA);
+
+        byte[] body = encoder.encode(notificacao);
+        properties.setContentLength(body.length);
+        return new Message(body, properties);
+    }
+
+    private void adicionarAoLote(byte[] json) {
+        List<Message> prontos = new ArrayList<>(2);
+        synchronized (this) {
+            // Corpo final: "[" + itens separados por "," + "]"
+            if (!lote.isEmpty() && loteBytes + json.length + lote.size() + 2 > loteBufferBytes) {
+                prontos.add(fecharLote());
+            }
+            lote.add(json);
+            loteBytes += json.length;
+            if (lote.size() >= loteTamanho) {
+                prontos.add(fecharLote());
+            } else if (envioLoteAgendado == null) {
+                envioLoteAgendado = agendadorLote.schedule((Runnable) this::enviarLote, loteJanelaMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        prontos.forEach(this::enviarLote);
+    }
+
+    // Envia o lote em formação, se houver (fim da janela ou encerramento)
+    private void enviarLote() {
+        Message message;
+        synchronized (this) {
+            message = lote.isEmpty() ? null : fecharLote();
+        }
+        if (message != null) {
+            enviarLote(message);
+        }
+    }
+
+    private void enviarLote(Message message) {
+        confirmTracker.publicar(exchangeConsultas, ROUTING_KEY_LOTE, message);
+    }
+
+    // Chamado sob synchronized (this): monta o array JSON e reinicia o lote
+    private Message fecharLote() {
+        if (envioLoteAgendado != null) {
+            envioLoteAgendado.cancel(false);
+            envioLoteAgendado = null;
+        }
+        ByteArrayOutputStream corpo = new ByteArrayOutputStream(loteBytes + lote.size() + 1);
+        corpo.write('[');
+        for (int i = 0; i < lote.size(); i++) {
+            if (i > 0) {
+                corpo.write(',');
+            }
+            corpo.writeBytes(lote.get(i));
+        }
+        corpo.write(']');
+
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(CONTENT_TYPE_LOTE);
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        properties.setHeader(HEADER_VERSAO_SCHEMA, NotificacaoClienteEncoder.VERSAO_SCHEMA);
+        properties.setHeader(HEADER_LOTE_ITENS, lote.size());
+        byte[] body = corpo.toByteArray();
+        properties.setContentLength(body.length);
+
+        lote = new ArrayList<>(loteTamanho);
+        loteBytes = 0;
+        return new Message(body, properties);
+    }
+
+    private ModoPublicacao configurarModo(ModoPublicacao modo, ConnectionFactory connectionFactory,
+                                          int loteTamanho, int loteBufferBytes, long loteJanelaMs) {
+        switch (modo) {
+            case LOTE -> {
+                if (formato != Formato.JSON) {
+                    logger.warn("Modo lote publica um array JSON e exige content-type json; usando o modo padrão");
+                    return ModoPublicacao.PADRAO;
+                }
+                this.loteTamanho = Math.max(1, loteTamanho);
+                this.loteBufferBytes = loteBufferBytes;
+                this.loteJanelaMs = loteJanelaMs;
+                this.lote = new ArrayList<>(this.loteTamanho);
+                this.agendadorLote = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "notificacao-cliente-lote");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                return modo;
+            }
+            case THREAD_CHANNEL -> {
+                if (!(connectionFactory instanceof AbstractConnectionFactory abstractConnectionFactory)) {
+                    logger.warn("ConnectionFactory {} não expõe a conexão nativa; usando o modo padrão",
+                        connectionFactory.getClass().getSimpleName());
+                    return ModoPublicacao.PADRAO;
+                }
+                if (connectionFactory.isPublisherConfirms() || connectionFactory.isSimplePublisherConfirms()
+                        || connectionFactory.isPublisherReturns()) {
+                    throw new IllegalStateException("Modo de publicação thread-channel não suporta publisher confirms "
+                        + "nem devoluções; use o modo padrao ou lote, ou desabilite spring.rabbitmq.publisher-confirm-type "
+                        + "e spring.rabbitmq.publisher-returns para publicar sem garantia de entrega");
+                }
+                logger.warn("Modo thread-channel: notificações para o cliente publicadas sem confirmação do broker");
+                threadChannelConnectionFactory =
+                    new ThreadChannelConnectionFactory(abstractConnectionFactory.getRabbitConnectionFactory());
+                threadChannelTemplate = new RabbitTemplate(threadChannelConnectionFactory);
+                return modo;
+            }
+            default -> {
+                return modo;
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.medsync.notificacao.infrastructure.events;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.medsync.notificacao.domain.events.NotificacaoEvent;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+@Component
+public class NotificacaoEventDecoder {
+
+    // ObjectReader é imutável e thread-safe: construído uma única vez e compartilhado
+    // entre todos os consumidores, reaproveitando o cache de deserializadores do mapper
+    private final ObjectReader eventoReader;
+
+    public NotificacaoEventDecoder(ObjectMapper objectMapper) {
+        this.eventoReader = objectMapper
+                .readerFor(NotificacaoEvent.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    public NotificacaoEvent decode(byte[] body, Charset charset) {
+        try (JsonParser parser = criarParser(body, charset)) {
+            return eventoReader.readValue(parser);
+        } catch (IOException e) {
+            throw new RuntimeException("Falha ao deserializar mensagem de notificação", e);
+        }
+    }
+
+    private JsonParser criarParser(byte[] body, Charset charset) throws IOException {
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            // Parser de bytes do Jackson decodifica UTF-8 direto do buffer, sem String intermediária
+            return eventoReader.createParser(body);
+        }
+        return eventoReader.createParser(new InputStreamReader(new ByteArrayInputStream(body), charset));
+    }
+}
@@ -3,86 +3,163 @@ package com.medsync.notificacao.infrastructure.events;
 import com.medsync.notificacao.application.services.NotificacaoService;
 import com.medsync.notificacao.domain.events.ConsultaCriadaNotificacaoEvent;
 import com.medsync.notificacao.domain.events.ConsultaEditadaNotificacaoEvent;
+import com.medsync.notificacao.domain.events.EventoNaoReconhecido;
+import com.medsync.notificacao.domain.events.NotificacaoEvent;
+import com.medsync.notificacao.infrastructure.metrics.LatenciaEstagios;
+import com.rabbitmq.client.Channel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
-import org.springframework.context.annotation.Lazy;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
 @Component
 public class NotificacaoEventListener {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(NotificacaoEventListener.class);
-    
+
     private final NotificacaoService notificacaoService;
-    
-    public NotificacaoEventListener(NotificacaoService notificacaoService) {
+    private final NotificacaoEventDecoder eventDecoder;
+    private final RabbitTemplate rabbitTemplate;
+    private final LatenciaEstagios latencia;
+    private final AtomicLong mensagensRecebidas = new AtomicLong();
+
+    // Loga o payload completo (em DEBUG) a cada N mensagens; 0 desabilita
+    @Value("${app.rabbitmq.payload-log-sample-rate:100}")
+    private int payloadLogSampleRate;
+
+    @Value("${app.rabbitmq.queue-notificacoes-dlq}")
+    private String queueNotificacoesDlq;
+
+    public NotificacaoEventListener(NotificacaoService notificacaoService,
+                                    NotificacaoEventDecoder eventDecoder,
+                                    RabbitTemplate rabbitTemplate,
+                                    LatenciaEstagios latencia) {
         this.notificacaoService = notificacaoService;
+        this.eventDecoder = eventDecoder;
+        this.rabbitTemplate = rabbitTemplate;
+        this.latencia = latencia;
     }
-    
-    @RabbitListener(queues = "${app.rabbitmq.queue-notificacoes}")
-    public void handleConsultaNotificacao(org.springframework.amqp.core.Message message) {
+
+    // Consumo mensagem a mensagem (padrão); desativado quando o modo lote está habilitado
+    @RabbitListener(queues = "${app.rabbitmq.queue-notificacoes}",
+                    autoStartup = "#{!${app.rabbitmq.batch.enabled:false}}")
+    public void handleConsultaNotificacao(Message message) {
+        Charset charset = resolverCharset(message.getMessageProperties());
         try {
-            String messageBody = new String(message.getBody());
-            logger.info("Recebida mensagem de notificação: {}", messageBody);
-            logger.debug("Headers da mensagem: {}", message.getMessageProperties().getHeaders());
-            
-            String evento = extractEventType(messageBody);
-            
-            switch (evento) {
-                case "consulta_criada_notificacao" -> {
-                    ConsultaCriadaNotificacaoEvent eventoCriada = parseConsultaCriada(messageBody);
-                    logger.info("Processando evento de consulta criada: {}", eventoCriada.consultaId());
-                    notificacaoService.processarConsultaCriada(eventoCriada);
-                }
-                case "consulta_editada_notificacao" -> {
-                    ConsultaEditadaNotificacaoEvent eventoEditada = parseConsultaEditada(messageBody);
-                    logger.info("Processando evento de consulta editada: {}", eventoEditada.consultaId());
-                    notificacaoService.processarConsultaEditada(eventoEditada);
-                }
-                default -> {
-                    logger.warn("Tipo de evento não reconhecido: {}", evento);
-                }
-            }
-            
+            processarMensagem(message, charset);
         } catch (Exception e) {
-            logger.error("Erro ao processar mensagem de notificação", e);
+            // Apenas no caminho de erro o corpo é convertido para String
+            logger.error("Erro ao processar mensagem de notificação: {}", new String(message.getBody(), charset), e);
             throw e; // Re-throw para que o RabbitMQ possa lidar com a mensagem (DLX, retry, etc.)
         }
     }
-    
-    private String extractEventType(String messageBody) {
+
+    // Consumo em lote: processa o lote inteiro, envia mensagens inválidas para a DLQ
+    // individualmente e confirma todas com um único basicAck(multiple = true)
+    @RabbitListener(queues = "${app.rabbitmq.queue-notificacoes}",
+                    containerFactory = "batchContainerFactory",
+                    autoStartup = "${app.rabbitmq.batch.enabled:false}")
+    public void handleLoteConsultaNotificacao(List<Message> messages, Channel channel) throws IOException {
+        if (messages.isEmpty()) {
+            return;
+        }
+        logger.debug("Recebido lote de {} mensagens de notificação", messages.size());
+
+        long ultimaDeliveryTag = messages.get(messages.size() - 1).getMessageProperties().getDeliveryTag();
+        // Última mensagem já tratada (processada ou enviada à DLQ): nunca volta para a fila
+        long ultimaTagConcluida = -1;
+        int rejeitadas = 0;
+
         try {
-            com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
-            com.fasterxml.jackson.databind.JsonNode jsonNode = mapper.readTree(messageBody);
-            return jsonNode.get("evento").asText();
+            for (Message message : messages) {
+                Charset charset = resolverCharset(message.getMessageProperties());
+                try {
+                    processarMensagem(message, charset);
+                } catch (Exception e) {
+                    logger.error("Mensagem de notificação inválida enviada para a DLQ: {}",
+                        new String(message.getBody(), charset), e);
+                    enviarParaDlq(message, e);
+                    rejeitadas++;
+                }
+                ultimaTagConcluida = message.getMessageProperties().getDeliveryTag();
+            }
         } catch (Exception e) {
-            logger.error("Erro ao extrair tipo de evento da mensagem: {}", messageBody, e);
-            throw new RuntimeException("Falha ao extrair tipo de evento", e);
+            // Falha ao publicar na DLQ: confirma o que já foi tratado e devolve só o restante,
+            // para que emails e notificações já enviados não sejam reenviados
+            logger.error("Erro ao processar lote de {} mensagens, devolvendo as não tratadas para a fila",
+                messages.size(), e);
+            if (ultimaTagConcluida >= 0) {
+                channel.basicAck(ultimaTagConcluida, true);
+            }
+            channel.basicNack(ultimaDeliveryTag, true, true);
+            return;
         }
+
+        channel.basicAck(ultimaDeliveryTag, true);
+        logger.debug("Lote de {} mensagens confirmado ({} enviadas para a DLQ)", messages.size(), rejeitadas);
     }
-    
-    private ConsultaCriadaNotificacaoEvent parseConsultaCriada(String messageBody) {
-        try {
-            com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
-            mapper.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
-            mapper.configure(com.fasterxml.jackson.databind.DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-            return mapper.readValue(messageBody, ConsultaCriadaNotificacaoEvent.class);
-        } catch (Exception e) {
-            logger.error("Erro ao fazer parse da mensagem de consulta criada: {}", messageBody, e);
-            throw new RuntimeException("Falha ao deserializar mensagem de consulta criada", e);
+
+    private void processarMensagem(Message message, Charset charset) {
+        logarPayloadAmostrado(message, charset);
+
+        // Decodifica direto do byte[] da mensagem: discriminador "evento" e bind tipado
+        // resolvidos em uma única leitura, sem materializar o corpo como String
+        long inicioParse = System.nanoTime();
+        NotificacaoEvent evento = eventDecoder.decode(message.getBody(), charset);
+        // Discriminador livre vindo do payload: fora dos tipos conhecidos não vira valor de tag
+        String eventoMetrica = evento instanceof EventoNaoReconhecido ? LatenciaEstagios.EVENTO_DESCONHECIDO : evento.evento();
+        latencia.registrar(LatenciaEstagios.Estagio.PARSE, eventoMetrica, inicioParse);
+        latencia.registrarDesde(LatenciaEstagios.Estagio.BROKER, eventoMetrica, latencia.instanteEvento(evento.timestamp()));
+
+        if (evento instanceof ConsultaCriadaNotificacaoEvent eventoCriada) {
+            logger.info("Processando evento de consulta criada: {}", eventoCriada.consultaId());
+            notificacaoService.processarConsultaCriada(eventoCriada);
+        } else if (evento instanceof ConsultaEditadaNotificacaoEvent eventoEditada) {
+            logger.info("Processando evento de consulta editada: {}", eventoEditada.consultaId());
+            notificacaoService.processarConsultaEditada(eventoEditada);
+        } else {
+            logger.warn("Tipo de evento não reconhecido: {}", evento.evento());
+        }
+    }
+
+    private void enviarParaDlq(Message message, Exception erro) {
+        MessageProperties properties = message.getMessageProperties();
+        properties.setHeader("x-erro", erro.getMessage());
+        properties.setHeader("x-fila-origem", properties.getConsumerQueue());
+        rabbitTemplate.send("", queueNotificacoesDlq, message);
+    }
+
+    private void logarPayloadAmostrado(Message message, Charset charset) {
+        long sequencia = mensagensRecebidas.incrementAndGet();
+        if (!logger.isDebugEnabled()) {
+            return;
+        }
+        if (payloadLogSampleRate > 0 && sequencia % payloadLogSampleRate == 0) {
+            logger.debug("Mensagem de notificação amostrada #{}: {} - headers: {}",
+                sequencia, new String(message.getBody(), charset), message.getMessageProperties().getHeaders());
         }
     }
-    
-    private ConsultaEditadaNotificacaoEvent parseConsultaEditada(String messageBody) {
+
+    private Charset resolverCharset(MessageProperties properties) {
+        String contentEncoding = properties.getContentEncoding();
+        if (contentEncoding == null || contentEncoding.isBlank()) {
+            return StandardCharsets.UTF_8;
+        }
         try {
-            com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
-            mapper.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
-            mapper.configure(com.fasterxml.jackson.databind.DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-            return mapper.readValue(messageBody, ConsultaEditadaNotificacaoEvent.class);
-        } catch (Exception e) {
-            logger.error("Erro ao fazer parse da mensagem de consulta editada: {}", messageBody, e);
-            throw new RuntimeException("Falha ao deserializar mensagem de consulta editada", e);
+            return Charset.forName(contentEncoding);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Content-encoding '{}' não suportado, utilizando UTF-8", contentEncoding);
+            return StandardCharsets.UTF_8;
         }
     }
 }
@@ -0,0 +1,167 @@
+package com.medsync.notificacao.infrastructure.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Acompanha os publisher confirms (publisher-confirm-type: correlated) sem esperar por mensagem:
+// cada publicação leva um CorrelationData e o resultado chega no future dele. Nack, mensagem
+// devolvida (mandatory, sem fila de destino) ou timeout republicam com limite de tentativas.
+@Component
+public class PublisherConfirmTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(PublisherConfirmTracker.class);
+
+    private final RabbitTemplate rabbitTemplate;
+    private final long confirmTimeoutMs;
+    private final int maxRetries;
+    private final long retryDelayMs;
+    private final Map<String, Publicacao> emVoo = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService republicador;
+    private final Counter republicadas;
+    private final Counter descartadas;
+    // Um Timer por resultado, registrados uma vez: o confirm não passa pelo registry
+    private final Map<String, Timer> latenciaPorResultado = new HashMap<>();
+
+    public PublisherConfirmTracker(RabbitTemplate rabbitTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.rabbitmq.confirm.timeout-ms:10000}") long confirmTimeoutMs,
+                                   @Value("${app.rabbitmq.confirm.max-retries:3}") int maxRetries,
+                                   @Value("${app.rabbitmq.confirm.retry-delay-ms:1000}") long retryDelayMs) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+        this.maxRetries = maxRetries;
+        this.retryDelayMs = retryDelayMs;
+        this.republicador = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rabbit-confirm-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("notificacao.rabbitmq.confirm.inflight", emVoo, Map::size)
+            .description("Publicações aguardando confirmação do broker")
+            .register(meterRegistry);
+        this.republicadas = Counter.builder("notificacao.rabbitmq.publish.republished")
+            .description("Publicações reenviadas após nack, devolução ou timeout")
+            .register(meterRegistry);
+        this.descartadas = Counter.builder("notificacao.rabbitmq.publish.failed")
+            .description("Publicações abandonadas após esgotar as tentativas")
+            .register(meterRegistry);
+        for (String resultado : List.of("ack", "nack", "returned", "timeout", "erro")) {
+            latenciaPorResultado.put(resultado, Timer.builder("notificacao.rabbitmq.confirm.latency")
+                .description("Tempo entre a publicação e a confirmação do broker")
+                .tag("result", resultado)
+                .register(meterRegistry));
+        }
+    }
+
+    public void publicar(String exchange, String routingKey, Message message) {
+        enviar(new Publicacao(exchange, routingKey, message, 1));
+    }
+
+    public int emVoo() {
+        return emVoo.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        republicador.shutdownNow();
+        if (!emVoo.isEmpty()) {
+            logger.warn("Encerrando com {} publicações sem confirmação do broker", emVoo.size());
+        }
+    }
+
+    private void enviar(Publicacao publicacao) {
+        CorrelationData correlationData = new CorrelationData(UUID.randomUUID().toString());
+        emVoo.put(correlationData.getId(), publicacao);
+        long inicio = System.nanoTime();
+
+        correlationData.getFuture()
+            .orTimeout(confirmTimeoutMs, TimeUnit.MILLISECONDS)
+            .whenComplete((confirm, erro) -> {
+                emVoo.remove(correlationData.getId());
+                ReturnedMessage devolvida = correlationData.getReturned();
+                String resultado;
+                String motivo;
+                // TimeoutException de orTimeout e nacks do broker costumam vir sem mensagem
+                if (erro != null) {
+                    resultado = erro instanceof TimeoutException ? "timeout" : "erro";
+                    motivo = erro instanceof TimeoutException ? "sem confirmação em " + confirmTimeoutMs + " ms"
+                        : String.valueOf(erro.getMessage());
+                } else if (!confirm.isAck()) {
+                    resultado = "nack";
+                    motivo = String.valueOf(confirm.getReason());
+                } else if (devolvida != null) {
+                    resultado = "returned";
+                    motivo = devolvida.getReplyCode() + " " + devolvida.getReplyText();
+                } else {
+                    resultado = "ack";
+                    motivo = null;
+                }
+                latenciaPorResultado.get(resultado).record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+
+                if (motivo != null) {
+                    tratarFalha(publicacao, resultado, motivo);
+                }
+            });
+
+        try {
+            rabbitTemplate.send(publicacao.exchange(), publicacao.routingKey(), publicacao.message(), correlationData);
+        } catch (AmqpException e) {
+            // Falha antes de chegar ao broker: o confirm nunca virá
+            correlationData.getFuture().completeExceptionally(e);
+        }
+    }
+
+    private void tratarFalha(Publicacao publicacao, String resultado, String motivo) {
+        if (publicacao.tentativa() > maxRetries) {
+            descartadas.increment();
+            logger.error("Publicação em {} ({}) falhou após {} tentativas: {} - {}",
+                publicacao.exchange(), publicacao.routingKey(), publicacao.tentativa(), resultado, motivo);
+            return;
+        }
+
+        long delayMs = retryDelayMs << Math.min(publicacao.tentativa() - 1, 10);
+        logger.warn("Publicação em {} ({}) não confirmada ({}: {}), nova tentativa em {} ms",
+            publicacao.exchange(), publicacao.routingKey(), resultado, motivo, delayMs);
+        try {
+            republicador.schedule(() -> {
+                republicadas.increment();
+                enviar(publicacao.proximaTentativa());
+            }, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            descartadas.increment();
+            logger.error("Não foi possível republicar em {} ({}): serviço encerrando",
+                publicacao.exchange(), publicacao.routingKey());
+        }
+    }
+
+    private record Publicacao(String exchange, String routingKey, Message message, int tentativa) {
+        Publicacao proximaTentativa() {
+            return new Publicacao(exchange, routingKey, message, tentativa + 1);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.medsync.notificacao.infrastructure.idempotencia;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Bloom filter com duas gerações: a atual recebe as inserções e a anterior continua sendo
+// consultada até a próxima rotação. Cada chave é lembrada por pelo menos um intervalo de
+// rotação e no máximo dois, com memória fixa (bits por chave calculados pela taxa de falso
+// positivo) independente do tamanho das chaves.
+class FiltroBloomRotativo {
+
+    private final int bits;
+    private final int funcoesHash;
+    private final long intervaloRotacaoMs;
+
+    private volatile AtomicLongArray atual;
+    private volatile AtomicLongArray anterior;
+    private volatile long ultimaRotacao;
+
+    FiltroBloomRotativo(int capacidadePorGeracao, double taxaFalsoPositivo, long intervaloRotacaoMs) {
+        double ln2 = Math.log(2);
+        long bitsCalculados = (long) Math.ceil(-capacidadePorGeracao * Math.log(taxaFalsoPositivo) / (ln2 * ln2));
+        this.bits = (int) Math.min(Math.max(64, bitsCalculados), Integer.MAX_VALUE - 63);
+        this.funcoesHash = Math.max(1, (int) Math.round((double) bits / capacidadePorGeracao * ln2));
+        this.intervaloRotacaoMs = intervaloRotacaoMs;
+        this.atual = novaGeracao();
+        this.anterior = novaGeracao();
+        this.ultimaRotacao = System.currentTimeMillis();
+    }
+
+    boolean contem(String chave) {
+        long[] hashes = hashes(chave);
+        return contem(atual, hashes) || contem(anterior, hashes);
+    }
+
+    void adicionar(String chave) {
+        long[] hashes = hashes(chave);
+        AtomicLongArray geracao = atual;
+        for (int i = 0; i < funcoesHash; i++) {
+            int indice = indice(hashes, i);
+            long mascara = 1L << indice;
+            int palavra = indice >>> 6;
+            long valor;
+            do {
+                valor = geracao.get(palavra);
+                if ((valor & mascara) != 0) {
+                    break;
+                }
+            } while (!geracao.compareAndSet(palavra, valor, valor | mascara));
+        }
+    }
+
+    synchronized void rotacionarSeNecessario(long agora) {
+        if (agora - ultimaRotacao < intervaloRotacaoMs) {
+            return;
+        }
+        // Após mais de dois intervalos sem rotação as duas gerações já expiraram
+        anterior = agora - ultimaRotacao >= 2 * intervaloRotacaoMs ? novaGeracao() : atual;
+        atual = novaGeracao();
+        ultimaRotacao = agora;
+    }
+
+    int bytesPorGeracao() {
+        return atual.length() * Long.BYTES;
+    }
+
+    synchronized void escrever(DataOutput saida) throws IOException {
+        saida.writeInt(bits);
+        saida.writeInt(funcoesHash);
+        saida.writeLong(ultimaRotacao);
+        escreverGeracao(saida, atual);
+        escreverGeracao(saida, anterior);
+    }
+
+    // Estado salvo com outra configuração (bits/funções) é descartado
+    synchronized boolean ler(DataInput entrada) throws IOException {
+        int bitsSalvos = entrada.readInt();
+        int funcoesSalvas = entrada.readInt();
+        long rotacaoSalva = entrada.readLong();
+        if (bitsSalvos != bits || funcoesSalvas != funcoesHash) {
+            return false;
+        }
+        AtomicLongArray atualSalva = lerGeracao(entrada);
+        AtomicLongArray anteriorSalva = lerGeracao(entrada);
+        atual = atualSalva;
+        anterior = anteriorSalva;
+        ultimaRotacao = rotacaoSalva;
+        return true;
+    }
+
+    private boolean contem(AtomicLongArray geracao, long[] hashes) {
+        for (int i = 0; i < funcoesHash; i++) {
+            int indice = indice(hashes, i);
+            if ((geracao.get(indice >>> 6) & (1L << indice)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Double hashing (Kirsch-Mitzenmacher): k índices a partir de dois hashes de 64 bits
+    private int indice(long[] hashes, int i) {
+        long combinado = hashes[0] + i * hashes[1];
+        return (int) Long.remainderUnsigned(combinado, bits);
+    }
+
+    private static long[] hashes(String chave) {
+        // FNV-1a 64 sobre os bytes UTF-8, seguido de mistura splitmix64 para o segundo hash
+        long h = 0xcbf29ce484222325L;
+        for (byte b : chave.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        long h1 = misturar(h);
+        long h2 = misturar(h1 ^ 0x9e3779b97f4a7c15L) | 1L;
+        return new long[] { h1, h2 };
+    }
+
+    private static long misturar(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private AtomicLongArray novaGeracao() {
+        return new AtomicLongArray((bits + 63) >>> 6);
+    }
+
+    private static void escreverGeracao(DataOutput saida, AtomicLongArray geracao) throws IOException {
+        saida.writeInt(geracao.length());
+        for (int i = 0; i < geracao.length(); i++) {
+            saida.writeLong(geracao.get(i));
+        }
+    }
+
+    private static AtomicLongArray lerGeracao(DataInput entrada) throws IOException {
+        AtomicLongArray geracao = new AtomicLongArray(entrada.readInt());
+        for (int i = 0; i < geracao.length(); i++) {
+            geracao.set(i, entrada.readLong());
+        }
+        return geracao;
+    }
+}
@@ -0,0 +1,295 @@
+package com.medsync.notificacao.infrastructure.idempotencia;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Deduplicação de eventos reentregues pelo RabbitMQ, chaveada por (consultaId, evento, timestamp).
+// Reentregas recentes (janela-exata-ms) são detectadas sem erro por um mapa exato; as mais
+// antigas, até janela-bloom-ms, por um Bloom filter rotativo com poucos bytes por chave, aceitando
+// a taxa de falso positivo configurada. Uma chave só passa a contar como processada em confirmar(),
+// depois que o processamento terminou; até lá ela fica reservada em memória (putIfAbsent), o que
+// impede entregas simultâneas, e é liberada se o processamento falhar. Com arquivo configurado,
+// confirmar() grava a chave de forma síncrona num log append-only (<arquivo>.log) antes do ack;
+// o snapshot periódico (<arquivo>) absorve o log, que então é truncado. No restart o snapshot é
+// carregado e o log reaplicado por cima.
+@Component
+public class IdempotenciaStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotenciaStore.class);
+
+    private static final int MAGIC = 0x4d534944; // "MSID"
+    private static final int VERSAO_ARQUIVO = 1;
+
+    private final boolean enabled;
+    private final long janelaExataMs;
+    private final FiltroBloomRotativo bloom;
+    private final Path arquivo;
+    private final Path arquivoLog;
+    // Chaves já processadas na janela exata
+    private final Map<String, Long> recentes = new ConcurrentHashMap<>();
+    // Chaves reservadas por um consumidor e ainda em processamento
+    private final Map<String, Long> emProcessamento = new ConcurrentHashMap<>();
+    // Log de confirmações desde o último snapshot: acesso sob synchronized (this)
+    private FileChannel log;
+    private final Counter duplicados;
+
+    public IdempotenciaStore(MeterRegistry meterRegistry,
+                             @Value("${app.notificacao.idempotencia.enabled:true}") boolean enabled,
+                             @Value("${app.notificacao.idempotencia.janela-exata-ms:600000}") long janelaExataMs,
+                             @Value("${app.notificacao.idempotencia.janela-bloom-ms:86400000}") long janelaBloomMs,
+                             @Value("${app.notificacao.idempotencia.capacidade:200000}") int capacidade,
+                             @Value("${app.notificacao.idempotencia.taxa-falso-positivo:0.0001}") double taxaFalsoPositivo,
+                             @Value("${app.notificacao.idempotencia.arquivo:}") String arquivo) {
+        this.enabled = enabled;
+        this.janelaExataMs = janelaExataMs;
+        // Duas gerações de meia janela cada: uma chave é lembrada por janela/2 a janela
+        this.bloom = new FiltroBloomRotativo(capacidade, taxaFalsoPositivo, Math.max(1, janelaBloomMs / 2));
+        this.arquivo = StringUtils.hasText(arquivo) ? Path.of(arquivo) : null;
+        this.arquivoLog = this.arquivo != null ? this.arquivo.resolveSibling(this.arquivo.getFileName() + ".log") : null;
+
+        this.duplicados = Counter.builder("notificacao.eventos.duplicados")
+            .description("Eventos reentregues descartados pela idempotência")
+            .register(meterRegistry);
+        Gauge.builder("notificacao.idempotencia.recentes", recentes, Map::size)
+            .description("Chaves na janela exata de deduplicação")
+            .register(meterRegistry);
+
+        if (enabled) {
+            carregar();
+            abrirLog();
+            logger.info("Idempotência habilitada - janela exata {} ms, Bloom filter {} KB por geração, persistência: {}",
+                janelaExataMs, bloom.bytesPorGeracao() / 1024, this.arquivo != null ? this.arquivo : "desabilitada");
+        }
+    }
+
+    // Retorna true na primeira entrega do evento, reservando a chave, e false em reentregas
+    // (já processadas ou em processamento por outro consumidor)
+    public boolean registrarSeNovo(String consultaId, String evento, String timestamp) {
+        if (!enabled) {
+            return true;
+        }
+        String chave = chave(consultaId, evento, timestamp);
+
+        // putIfAbsent garante que só um consumidor processa entregas simultâneas da mesma chave;
+        // a reserva vem antes da consulta aos processados para não perder uma confirmação concorrente
+        if (emProcessamento.putIfAbsent(chave, System.currentTimeMillis()) != null) {
+            duplicados.increment();
+            return false;
+        }
+        if (recentes.containsKey(chave) || bloom.contem(chave)) {
+            emProcessamento.remove(chave);
+            duplicados.increment();
+            return false;
+        }
+        return true;
+    }
+
+    // Processamento concluído: a chave vira processada e é gravada no log antes do ack da mensagem
+    public void confirmar(String consultaId, String evento, String timestamp) {
+        if (!enabled) {
+            return;
+        }
+        String chave = chave(consultaId, evento, timestamp);
+        long agora = System.currentTimeMillis();
+        recentes.put(chave, agora);
+        bloom.adicionar(chave);
+        emProcessamento.remove(chave);
+        gravarNoLog(chave, agora);
+    }
+
+    // Processamento falhou: libera a chave para que uma reentrega seja processada
+    public void liberar(String consultaId, String evento, String timestamp) {
+        if (enabled) {
+            emProcessamento.remove(chave(consultaId, evento, timestamp));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.notificacao.idempotencia.manutencao-intervalo-ms:30000}")
+    public void manutencao() {
+        if (!enabled) {
+            return;
+        }
+        long agora = System.currentTimeMillis();
+        recentes.values().removeIf(registro -> agora - registro > janelaExataMs);
+        // Reserva sem confirmar nem liberar por uma janela inteira: consumidor perdido
+        emProcessamento.values().removeIf(reserva -> agora - reserva > janelaExataMs);
+        bloom.rotacionarSeNecessario(agora);
+        salvar();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (enabled) {
+            salvar();
+            fecharLog();
+        }
+    }
+
+    private static String chave(String consultaId, String evento, String timestamp) {
+        return consultaId + '|' + evento + '|' + timestamp;
+    }
+
+    private synchronized void gravarNoLog(String chave, long registro) {
+        if (log == null) {
+            return;
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(chave.length() + 16);
+            DataOutputStream registroLog = new DataOutputStream(bytes);
+            registroLog.writeUTF(chave);
+            registroLog.writeLong(registro);
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                log.write(buffer);
+            }
+            log.force(false);
+        } catch (IOException e) {
+            // A chave continua deduplicada em memória; só a garantia após um crash é perdida
+            logger.warn("Falha ao gravar chave de idempotência no log {}: {}", arquivoLog, e.getMessage());
+        }
+    }
+
+    private void abrirLog() {
+        if (arquivoLog == null) {
+            return;
+        }
+        try {
+            if (arquivoLog.getParent() != null) {
+                Files.createDirectories(arquivoLog.getParent());
+            }
+            log = FileChannel.open(arquivoLog, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.warn("Falha ao abrir log de idempotência {}: {}", arquivoLog, e.getMessage());
+        }
+    }
+
+    private synchronized void fecharLog() {
+        if (log == null) {
+            return;
+        }
+        try {
+            log.close();
+        } catch (IOException e) {
+            logger.debug("Erro ao fechar log de idempotência: {}", e.getMessage());
+        }
+        log = null;
+    }
+
+    // Sob o mesmo lock do log: nenhuma confirmação entra entre a cópia do estado e o truncamento
+    private synchronized void salvar() {
+        if (arquivo == null) {
+            return;
+        }
+        try {
+            Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+            if (arquivo.getParent() != null) {
+                Files.createDirectories(arquivo.getParent());
+            }
+            try (DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporario)))) {
+                saida.writeInt(MAGIC);
+                saida.writeInt(VERSAO_ARQUIVO);
+                bloom.escrever(saida);
+                Map<String, Long> copia = Map.copyOf(recentes);
+                saida.writeInt(copia.size());
+                for (Map.Entry<String, Long> entrada : copia.entrySet()) {
+                    saida.writeUTF(entrada.getKey());
+                    saida.writeLong(entrada.getValue());
+                }
+            }
+            // Troca atômica: um crash durante a escrita nunca deixa o arquivo pela metade
+            Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            // As confirmações do log já estão no snapshot
+            if (log != null) {
+                log.truncate(0);
+            }
+        } catch (IOException e) {
+            logger.warn("Falha ao salvar estado de idempotência em {}: {}", arquivo, e.getMessage());
+        }
+    }
+
+    private void carregar() {
+        carregarSnapshot();
+        reaplicarLog();
+    }
+
+    private void carregarSnapshot() {
+        if (arquivo == null || !Files.exists(arquivo)) {
+            return;
+        }
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(arquivo)))) {
+            if (entrada.readInt() != MAGIC || entrada.readInt() != VERSAO_ARQUIVO) {
+                logger.warn("Arquivo de idempotência {} em formato desconhecido, ignorado", arquivo);
+                return;
+            }
+            if (!bloom.ler(entrada)) {
+                logger.warn("Arquivo de idempotência {} gerado com outra capacidade/taxa, ignorado", arquivo);
+                return;
+            }
+            long agora = System.currentTimeMillis();
+            int quantidade = entrada.readInt();
+            for (int i = 0; i < quantidade; i++) {
+                String chave = entrada.readUTF();
+                long registro = entrada.readLong();
+                if (agora - registro <= janelaExataMs) {
+                    recentes.put(chave, registro);
+                }
+            }
+            bloom.rotacionarSeNecessario(agora);
+            logger.info("Estado de idempotência restaurado de {} ({} chaves recentes)", arquivo, recentes.size());
+        } catch (IOException e) {
+            logger.warn("Falha ao carregar estado de idempotência de {}: {}", arquivo, e.getMessage());
+        }
+    }
+
+    // Confirmações gravadas depois do último snapshot; um registro incompleto no fim (crash
+    // durante a escrita) é descartado, pois a mensagem dele não chegou a ser confirmada
+    private void reaplicarLog() {
+        if (arquivoLog == null || !Files.exists(arquivoLog)) {
+            return;
+        }
+        long agora = System.currentTimeMillis();
+        int reaplicadas = 0;
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(arquivoLog)))) {
+            while (true) {
+                String chave = entrada.readUTF();
+                long registro = entrada.readLong();
+                bloom.adicionar(chave);
+                if (agora - registro <= janelaExataMs) {
+                    recentes.put(chave, registro);
+                }
+                reaplicadas++;
+            }
+        } catch (EOFException e) {
+            // Fim do log
+        } catch (IOException e) {
+            logger.warn("Falha ao reaplicar log de idempotência {}: {}", arquivoLog, e.getMessage());
+        }
+        if (reaplicadas > 0) {
+            logger.info("{} confirmações reaplicadas do log de idempotência {}", reaplicadas, arquivoLog);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.medsync.notificacao.infrastructure.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Latência por estágio do fluxo de notificação, num único timer com histograma
+// (notificacao.pipeline.estagio{estagio, evento}) para comparar os estágios lado a lado:
+// espera no broker (timestamp do evento até o recebimento), parse, renderização do texto da
+// notificação e do HTML do email (estágios separados), consulta ao cadastro, publicação AMQP,
+// envio SMTP e o total do timestamp do evento até o email aceito pelo servidor SMTP.
+@Component
+public class LatenciaEstagios {
+
+    public static final String METRICA = "notificacao.pipeline.estagio";
+    // Buscas no cadastro são agrupadas em lote e cacheadas, sem um evento único a quem atribuir
+    public static final String EVENTO_COMPARTILHADO = "compartilhado";
+    public static final String EVENTO_DESCONHECIDO = "desconhecido";
+
+    private static final String SUFIXO_EVENTO = "_notificacao";
+
+    public enum Estagio {
+        BROKER,
+        PARSE,
+        TEMPLATE_TEXTO,
+        TEMPLATE_HTML,
+        CADASTRO,
+        PUBLICACAO_AMQP,
+        ENVIO_SMTP,
+        PONTA_A_PONTA
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final ZoneId zonaEventos;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public LatenciaEstagios(MeterRegistry meterRegistry,
+                            @Value("${app.notificacao.metricas.zona-eventos:America/Sao_Paulo}") String zonaEventos) {
+        this.meterRegistry = meterRegistry;
+        this.zonaEventos = ZoneId.of(zonaEventos);
+    }
+
+    public static Timer timer(MeterRegistry meterRegistry, Estagio estagio, String evento) {
+        return Timer.builder(METRICA)
+            .description("Latência de cada estágio do processamento de notificações")
+            .tag("estagio", estagio.name().toLowerCase(Locale.ROOT))
+            .tag("evento", evento)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    // Tanto o discriminador do evento (consulta_criada_notificacao) quanto o tipo da
+    // notificação (CONSULTA_CRIADA, LEMBRETE) viram o mesmo valor de tag
+    public static String evento(String tipo) {
+        if (tipo == null || tipo.isBlank()) {
+            return EVENTO_DESCONHECIDO;
+        }
+        String evento = tipo.toLowerCase(Locale.ROOT);
+        return evento.endsWith(SUFIXO_EVENTO) ? evento.substring(0, evento.length() - SUFIXO_EVENTO.length()) : evento;
+    }
+
+    // Duração medida com System.nanoTime() a partir de inicioNanos
+    public void registrar(Estagio estagio, String tipo, long inicioNanos) {
+        timer(estagio, tipo).record(System.nanoTime() - inicioNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Duração pelo relógio de parede desde instanteMs (ex.: timestamp do evento). Valores
+    // ausentes ou no futuro (relógios dessincronizados) são ignorados
+    public void registrarDesde(Estagio estagio, String tipo, long instanteMs) {
+        if (instanteMs < 0) {
+            return;
+        }
+        long duracaoMs = System.currentTimeMillis() - instanteMs;
+        if (duracaoMs >= 0) {
+            timer(estagio, tipo).record(duracaoMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Timestamp do evento em epoch millis, ou -1 se ausente/inválido. Sem offset, é
+    // interpretado no fuso de app.notificacao.metricas.zona-eventos
+    public long instanteEvento(String timestamp) {
+        if (timestamp == null || timestamp.isBlank()) {
+            return -1;
+        }
+        try {
+            return LocalDateTime.parse(timestamp).atZone(zonaEventos).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            try {
+                return OffsetDateTime.parse(timestamp).toInstant().toEpochMilli();
+            } catch (DateTimeParseException ignorada) {
+                return -1;
+            }
+        }
+    }
+
+    private Timer timer(Estagio estagio, String tipo) {
+        String evento = evento(tipo);
+        return timers.computeIfAbsent(estagio.name() + '|' + evento, chave -> timer(meterRegistry, estagio, evento));
+    }
+}
@@ -0,0 +1,36 @@
+package com.medsync.notificacao.infrastructure.scheduling;
+
+import com.medsync.notificacao.presentation.dto.NotificacaoRequest;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Dados que um lembrete precisa da consulta: identificação, contatos e data. Fica em memória
+// enquanto houver lembretes pendentes e é o que o LembreteJournal grava, sem título, mensagem
+// e corpo renderizado da notificação que originou o agendamento.
+public record ContatoConsulta(
+    UUID consultaId,
+    String pacienteNome,
+    String pacienteEmail,
+    String pacienteTelefone,
+    String medicoNome,
+    String medicoEmail,
+    String medicoTelefone,
+    LocalDateTime dataHora,
+    String tipoNotificacao
+) {
+
+    public static ContatoConsulta de(NotificacaoRequest notificacao) {
+        return new ContatoConsulta(
+            notificacao.consultaId(),
+            notificacao.pacienteNome(),
+            notificacao.pacienteEmail(),
+            notificacao.pacienteTelefone(),
+            notificacao.medicoNome(),
+            notificacao.medicoEmail(),
+            notificacao.medicoTelefone(),
+            notificacao.dataHora(),
+            notificacao.tipoNotificacao()
+        );
+    }
+}
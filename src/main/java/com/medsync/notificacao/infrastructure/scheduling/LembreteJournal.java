@@ -0,0 +1,441 @@
+package com.medsync.notificacao.infrastructure.scheduling;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Journal append-only dos lembretes agendados, para que o agendamento sobreviva a redeploys
+// (o serviço não tem banco). Dois arquivos no diretório configurado:
+//  - lembretes.journal: mapeado em memória, registros de largura fixa (40 bytes) de agendamento
+//    e de encerramento (cancelado ou disparado) com consultaId, instante e índice da antecedência;
+//  - lembretes-<geracao>.dados: dados de contato da consulta, gravados uma vez por agendamento
+//    e referenciados pelo offset nos registros.
+// O byte de tipo é escrito por último, então um registro interrompido no meio nunca é lido.
+// Na inicialização o journal é varrido sequencialmente para reconstruir os lembretes vivos, e a
+// compactação reescreve os dois arquivos só com eles quando a maioria dos registros já morreu.
+@Component
+public class LembreteJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(LembreteJournal.class);
+
+    private static final int MAGIC = 0x4d534c4a; // "MSLJ"
+    private static final int VERSAO_ARQUIVO = 1;
+    private static final int CABECALHO = 16;
+    static final int TAMANHO_REGISTRO = 40;
+
+    private static final byte AGENDADO = 1;
+    private static final byte ENCERRADO = 2;
+
+    // Lembrete vivo restaurado do journal, já com os dados da consulta
+    public record LembreteRestaurado(ContatoConsulta consulta, int indiceAntecedencia, int horas, long instanteMs) {}
+
+    private record Chave(UUID consultaId, int indiceAntecedencia) {}
+
+    private record Registro(UUID consultaId, int indiceAntecedencia, int horas, long instanteMs, long dadosOffset) {}
+
+    private final boolean enabled;
+    private final Path diretorio;
+    private final Path arquivoJournal;
+    private final int capacidadeInicialRegistros;
+    private final long atrasoMaximoMs;
+    private final long compactacaoMinimoRegistros;
+
+    private FileChannel canalJournal;
+    private MappedByteBuffer mapa;
+    private FileChannel canalDados;
+    private long geracao;
+    private int posicao;
+    private long posicaoDados;
+    private long registros;
+    private long vivos;
+    private List<LembreteRestaurado> restaurados = List.of();
+
+    public LembreteJournal(MeterRegistry meterRegistry,
+                           @Value("${app.notificacao.lembrete.journal.diretorio:}") String diretorio,
+                           @Value("${app.notificacao.lembrete.journal.capacidade-inicial-registros:65536}") int capacidadeInicialRegistros,
+                           @Value("${app.notificacao.lembrete.journal.atraso-maximo-ms:3600000}") long atrasoMaximoMs,
+                           @Value("${app.notificacao.lembrete.journal.compactacao-minimo-registros:100000}") long compactacaoMinimoRegistros) {
+        this.enabled = StringUtils.hasText(diretorio);
+        this.diretorio = enabled ? Path.of(diretorio) : null;
+        this.arquivoJournal = enabled ? this.diretorio.resolve("lembretes.journal") : null;
+        this.capacidadeInicialRegistros = Math.max(1024, capacidadeInicialRegistros);
+        this.atrasoMaximoMs = atrasoMaximoMs;
+        this.compactacaoMinimoRegistros = compactacaoMinimoRegistros;
+
+        Gauge.builder("notificacao.lembretes.journal.registros", this, LembreteJournal::registros)
+            .description("Registros no journal de lembretes, incluindo os já encerrados")
+            .register(meterRegistry);
+
+        if (enabled) {
+            abrir();
+        } else {
+            logger.warn("Journal de lembretes desabilitado (LEMBRETE_JOURNAL_DIR vazio) - lembretes pendentes não sobrevivem a restarts");
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Entregue uma única vez, na inicialização do agendador
+    public synchronized List<LembreteRestaurado> restaurar() {
+        List<LembreteRestaurado> lembretes = restaurados;
+        restaurados = List.of();
+        return lembretes;
+    }
+
+    // Grava os dados da consulta e devolve o offset a ser referenciado pelos agendamentos
+    public synchronized long registrarConsulta(ContatoConsulta consulta) {
+        if (!enabled) {
+            return -1;
+        }
+        try {
+            byte[] dados = codificar(consulta);
+            ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + dados.length);
+            buffer.putInt(dados.length).put(dados).flip();
+            long offset = posicaoDados;
+            while (buffer.hasRemaining()) {
+                posicaoDados += canalDados.write(buffer, posicaoDados);
+            }
+            return offset;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar dados da consulta no journal de lembretes", e);
+        }
+    }
+
+    public synchronized void registrarAgendamento(UUID consultaId, int indiceAntecedencia, int horas,
+                                                  long instanteMs, long dadosOffset) {
+        if (!enabled) {
+            return;
+        }
+        escrever(AGENDADO, new Registro(consultaId, indiceAntecedencia, horas, instanteMs, dadosOffset));
+        vivos++;
+    }
+
+    // Lembrete cancelado ou já disparado: deixa de ser restaurado
+    public synchronized void registrarEncerramento(UUID consultaId, int indiceAntecedencia, long instanteMs) {
+        if (!enabled) {
+            return;
+        }
+        escrever(ENCERRADO, new Registro(consultaId, indiceAntecedencia, 0, instanteMs, -1));
+        vivos = Math.max(0, vivos - 1);
+    }
+
+    public synchronized long registros() {
+        return registros;
+    }
+
+    // Persiste as páginas sujas e compacta quando a maioria dos registros já foi encerrada
+    @Scheduled(fixedDelayString = "${app.notificacao.lembrete.journal.manutencao-intervalo-ms:5000}")
+    public synchronized void manutencao() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            mapa.force();
+            canalDados.force(false);
+            if (registros >= compactacaoMinimoRegistros && vivos * 2 < registros) {
+                compactar();
+            }
+        } catch (IOException e) {
+            logger.warn("Falha na manutenção do journal de lembretes: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (!enabled || canalJournal == null) {
+            return;
+        }
+        try {
+            mapa.force();
+            canalDados.force(false);
+            canalJournal.close();
+            canalDados.close();
+        } catch (IOException e) {
+            logger.warn("Falha ao fechar o journal de lembretes: {}", e.getMessage());
+        }
+    }
+
+    private void abrir() {
+        long inicio = System.nanoTime();
+        try {
+            Files.createDirectories(diretorio);
+            boolean existente = Files.exists(arquivoJournal) && Files.size(arquivoJournal) >= CABECALHO;
+            canalJournal = FileChannel.open(arquivoJournal,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long tamanho = Math.max(canalJournal.size(), CABECALHO + (long) capacidadeInicialRegistros * TAMANHO_REGISTRO);
+            mapa = canalJournal.map(FileChannel.MapMode.READ_WRITE, 0, tamanho);
+
+            if (!existente) {
+                recriar(tamanho);
+            } else if (mapa.getInt(0) != MAGIC || mapa.getInt(4) != VERSAO_ARQUIVO) {
+                logger.warn("Journal de lembretes {} em formato desconhecido, recriado", arquivoJournal);
+                recriar(tamanho);
+            }
+
+            geracao = mapa.getLong(8);
+            canalDados = FileChannel.open(arquivoDados(geracao),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            posicaoDados = canalDados.size();
+
+            Map<Chave, Registro> ativos = varrer(System.currentTimeMillis());
+            restaurados = carregarDados(ativos);
+            vivos = ativos.size();
+            logger.info("Journal de lembretes {} aberto: {} registros, {} lembretes restaurados em {} ms",
+                arquivoJournal, registros, restaurados.size(), (System.nanoTime() - inicio) / 1_000_000);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao abrir o journal de lembretes em " + diretorio, e);
+        }
+    }
+
+    // Descarta o conteúdo anterior: o arquivo é truncado e remapeado, então todo byte de tipo
+    // volta a zero e nenhum registro antigo é lido na varredura
+    private void recriar(long tamanho) throws IOException {
+        canalJournal.truncate(0);
+        mapa = canalJournal.map(FileChannel.MapMode.READ_WRITE, 0, tamanho);
+        mapa.putInt(0, MAGIC);
+        mapa.putInt(4, VERSAO_ARQUIVO);
+        mapa.putLong(8, 0L);
+    }
+
+    // Varredura sequencial até o primeiro registro não gravado; define a posição de escrita
+    private Map<Chave, Registro> varrer(long agora) {
+        Map<Chave, Registro> ativos = new LinkedHashMap<>();
+        int atual = CABECALHO;
+        long lidos = 0;
+        while (atual + TAMANHO_REGISTRO <= mapa.capacity()) {
+            byte tipo = mapa.get(atual);
+            if (tipo != AGENDADO && tipo != ENCERRADO) {
+                break;
+            }
+            Registro registro = ler(atual);
+            Chave chave = new Chave(registro.consultaId(), registro.indiceAntecedencia());
+            if (tipo == AGENDADO) {
+                ativos.put(chave, registro);
+            } else {
+                Registro agendado = ativos.get(chave);
+                if (agendado != null && agendado.instanteMs() == registro.instanteMs()) {
+                    ativos.remove(chave);
+                }
+            }
+            atual += TAMANHO_REGISTRO;
+            lidos++;
+        }
+        posicao = atual;
+        registros = lidos;
+        // Lembretes que venceram há mais de atraso-maximo-ms com o serviço fora do ar são descartados
+        ativos.values().removeIf(registro -> registro.instanteMs() < agora - atrasoMaximoMs);
+        return ativos;
+    }
+
+    private List<LembreteRestaurado> carregarDados(Map<Chave, Registro> ativos) throws IOException {
+        ByteBuffer dadosMapeados = mapearDados();
+        Map<Long, ContatoConsulta> consultas = new HashMap<>();
+        List<LembreteRestaurado> lembretes = new ArrayList<>(ativos.size());
+        for (Registro registro : ativos.values()) {
+            ContatoConsulta consulta = consultas.get(registro.dadosOffset());
+            if (consulta == null) {
+                consulta = decodificar(lerDados(dadosMapeados, registro.dadosOffset()));
+                consultas.put(registro.dadosOffset(), consulta);
+            }
+            lembretes.add(new LembreteRestaurado(consulta, registro.indiceAntecedencia(), registro.horas(), registro.instanteMs()));
+        }
+        return lembretes;
+    }
+
+    private void escrever(byte tipo, Registro registro) {
+        try {
+            if (posicao + TAMANHO_REGISTRO > mapa.capacity()) {
+                // Cresce dobrando: o mapeamento antigo é liberado pelo GC
+                mapa.force();
+                mapa = canalJournal.map(FileChannel.MapMode.READ_WRITE, 0, (long) mapa.capacity() * 2);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao expandir o journal de lembretes", e);
+        }
+        mapa.put(posicao + 1, (byte) registro.indiceAntecedencia());
+        mapa.putShort(posicao + 2, (short) registro.horas());
+        mapa.putInt(posicao + 4, 0);
+        mapa.putLong(posicao + 8, registro.consultaId().getMostSignificantBits());
+        mapa.putLong(posicao + 16, registro.consultaId().getLeastSignificantBits());
+        mapa.putLong(posicao + 24, registro.instanteMs());
+        mapa.putLong(posicao + 32, registro.dadosOffset());
+        // Tipo por último: marca o registro como completo
+        mapa.put(posicao, tipo);
+        posicao += TAMANHO_REGISTRO;
+        registros++;
+    }
+
+    private Registro ler(int offset) {
+        return new Registro(
+            new UUID(mapa.getLong(offset + 8), mapa.getLong(offset + 16)),
+            Byte.toUnsignedInt(mapa.get(offset + 1)),
+            Short.toUnsignedInt(mapa.getShort(offset + 2)),
+            mapa.getLong(offset + 24),
+            mapa.getLong(offset + 32));
+    }
+
+    // Reescreve journal e dados só com os lembretes vivos. O novo arquivo de dados tem outra
+    // geração no nome e o journal é trocado por move atômico: um crash no meio deixa sempre
+    // um journal apontando para o arquivo de dados correspondente.
+    private void compactar() throws IOException {
+        long inicio = System.nanoTime();
+        long registrosAntes = registros;
+        Map<Chave, Registro> ativos = varrer(System.currentTimeMillis());
+
+        long novaGeracao = geracao + 1;
+        Path novoDados = arquivoDados(novaGeracao);
+        ByteBuffer dadosMapeados = mapearDados();
+        Map<Long, Long> offsets = new HashMap<>();
+        List<Registro> compactados = new ArrayList<>(ativos.size());
+        try (FileChannel destino = FileChannel.open(novoDados,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long escrito = 0;
+            for (Registro registro : ativos.values()) {
+                Long novoOffset = offsets.get(registro.dadosOffset());
+                if (novoOffset == null) {
+                    byte[] dados = lerDados(dadosMapeados, registro.dadosOffset());
+                    ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + dados.length);
+                    buffer.putInt(dados.length).put(dados).flip();
+                    novoOffset = escrito;
+                    while (buffer.hasRemaining()) {
+                        escrito += destino.write(buffer, escrito);
+                    }
+                    offsets.put(registro.dadosOffset(), novoOffset);
+                }
+                compactados.add(new Registro(registro.consultaId(), registro.indiceAntecedencia(), registro.horas(),
+                    registro.instanteMs(), novoOffset));
+            }
+            destino.force(true);
+        }
+
+        Path temporario = arquivoJournal.resolveSibling(arquivoJournal.getFileName() + ".tmp");
+        long tamanho = CABECALHO + (long) Math.max(capacidadeInicialRegistros, compactados.size() * 2) * TAMANHO_REGISTRO;
+        try (FileChannel destino = FileChannel.open(temporario,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer novo = destino.map(FileChannel.MapMode.READ_WRITE, 0, tamanho);
+            novo.putInt(0, MAGIC);
+            novo.putInt(4, VERSAO_ARQUIVO);
+            novo.putLong(8, novaGeracao);
+            int atual = CABECALHO;
+            for (Registro registro : compactados) {
+                novo.put(atual + 1, (byte) registro.indiceAntecedencia());
+                novo.putShort(atual + 2, (short) registro.horas());
+                novo.putLong(atual + 8, registro.consultaId().getMostSignificantBits());
+                novo.putLong(atual + 16, registro.consultaId().getLeastSignificantBits());
+                novo.putLong(atual + 24, registro.instanteMs());
+                novo.putLong(atual + 32, registro.dadosOffset());
+                novo.put(atual, AGENDADO);
+                atual += TAMANHO_REGISTRO;
+            }
+            novo.force();
+        }
+
+        canalJournal.close();
+        canalDados.close();
+        Files.move(temporario, arquivoJournal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(arquivoDados(geracao));
+
+        geracao = novaGeracao;
+        canalJournal = FileChannel.open(arquivoJournal, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        mapa = canalJournal.map(FileChannel.MapMode.READ_WRITE, 0, canalJournal.size());
+        canalDados = FileChannel.open(novoDados, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        posicaoDados = canalDados.size();
+        posicao = CABECALHO + compactados.size() * TAMANHO_REGISTRO;
+        registros = compactados.size();
+        vivos = compactados.size();
+
+        logger.info("Journal de lembretes compactado: {} -> {} registros em {} ms",
+            registrosAntes, registros, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private Path arquivoDados(long geracao) {
+        return diretorio.resolve("lembretes-" + geracao + ".dados");
+    }
+
+    // Leitura em massa (restauração e compactação) pelo arquivo de dados mapeado, sem uma
+    // chamada de sistema por consulta
+    private ByteBuffer mapearDados() throws IOException {
+        return canalDados.map(FileChannel.MapMode.READ_ONLY, 0, canalDados.size());
+    }
+
+    private static byte[] lerDados(ByteBuffer dadosMapeados, long offset) throws IOException {
+        if (offset < 0 || offset + Integer.BYTES > dadosMapeados.limit()) {
+            throw new IOException("Arquivo de dados de lembretes truncado no offset " + offset);
+        }
+        int tamanho = dadosMapeados.getInt((int) offset);
+        if (offset + Integer.BYTES + tamanho > dadosMapeados.limit()) {
+            throw new IOException("Arquivo de dados de lembretes truncado no offset " + offset);
+        }
+        byte[] dados = new byte[tamanho];
+        dadosMapeados.get((int) offset + Integer.BYTES, dados);
+        return dados;
+    }
+
+    // Só o necessário para montar o lembrete: identificação, contatos e data da consulta
+    private static byte[] codificar(ContatoConsulta consulta) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream saida = new DataOutputStream(bytes)) {
+            saida.writeLong(consulta.consultaId().getMostSignificantBits());
+            saida.writeLong(consulta.consultaId().getLeastSignificantBits());
+            saida.writeUTF(texto(consulta.pacienteNome()));
+            saida.writeUTF(texto(consulta.pacienteEmail()));
+            saida.writeUTF(texto(consulta.pacienteTelefone()));
+            saida.writeUTF(texto(consulta.medicoNome()));
+            saida.writeUTF(texto(consulta.medicoEmail()));
+            saida.writeUTF(texto(consulta.medicoTelefone()));
+            saida.writeUTF(consulta.dataHora().toString());
+            saida.writeUTF(texto(consulta.tipoNotificacao()));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static ContatoConsulta decodificar(byte[] dados) throws IOException {
+        try (DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(dados))) {
+            UUID consultaId = new UUID(entrada.readLong(), entrada.readLong());
+            return new ContatoConsulta(
+                consultaId,
+                entrada.readUTF(),
+                entrada.readUTF(),
+                entrada.readUTF(),
+                entrada.readUTF(),
+                entrada.readUTF(),
+                entrada.readUTF(),
+                LocalDateTime.parse(entrada.readUTF()),
+                entrada.readUTF()
+            );
+        }
+    }
+
+    private static String texto(String valor) {
+        return valor != null ? valor : "";
+    }
+}
@@ -0,0 +1,182 @@
+package com.medsync.notificacao.infrastructure.scheduling;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Roda de temporização hierárquica (estilo timer wheel do kernel Linux): NIVEIS rodas de
+// SLOTS posições, cada nível cobrindo SLOTS vezes o intervalo do anterior. Agendar e cancelar
+// são O(1) (listas duplamente encadeadas por slot); a cada tick só o slot corrente é
+// processado, e os slots dos níveis superiores descem de nível quando sua faixa começa.
+// Nenhuma varredura completa dos agendamentos pendentes é feita.
+public class RodaTemporizacao<T> {
+
+    private static final int BITS_POR_NIVEL = 8;
+    private static final int SLOTS = 1 << BITS_POR_NIVEL;
+    private static final int MASCARA = SLOTS - 1;
+    private static final int NIVEIS = 4;
+    // Com tick de 1 s cobre 2^32 s à frente; prazos maiores são reposicionados no último nível
+    private static final long ALCANCE_MAXIMO = 1L << (BITS_POR_NIVEL * NIVEIS);
+
+    // Agendamento devolvido ao chamador: serve de handle para o cancelamento em O(1)
+    public static final class Agendamento<T> {
+        private final T valor;
+        private final long tickExpiracao;
+        private Slot<T> slot;
+        private Agendamento<T> anterior;
+        private Agendamento<T> proximo;
+
+        private Agendamento(T valor, long tickExpiracao) {
+            this.valor = valor;
+            this.tickExpiracao = tickExpiracao;
+        }
+
+        public T valor() {
+            return valor;
+        }
+    }
+
+    private static final class Slot<T> {
+        private Agendamento<T> primeiro;
+
+        private void adicionar(Agendamento<T> agendamento) {
+            agendamento.slot = this;
+            agendamento.anterior = null;
+            agendamento.proximo = primeiro;
+            if (primeiro != null) {
+                primeiro.anterior = agendamento;
+            }
+            primeiro = agendamento;
+        }
+
+        private void remover(Agendamento<T> agendamento) {
+            if (agendamento.anterior != null) {
+                agendamento.anterior.proximo = agendamento.proximo;
+            } else {
+                primeiro = agendamento.proximo;
+            }
+            if (agendamento.proximo != null) {
+                agendamento.proximo.anterior = agendamento.anterior;
+            }
+            agendamento.slot = null;
+            agendamento.anterior = null;
+            agendamento.proximo = null;
+        }
+
+        // Esvazia o slot devolvendo a lista encadeada inteira
+        private Agendamento<T> esvaziar() {
+            Agendamento<T> lista = primeiro;
+            primeiro = null;
+            return lista;
+        }
+    }
+
+    private final long tickMs;
+    private final Slot<T>[][] rodas;
+    // Já vencidos ao agendar: disparam no próximo avanço
+    private final Slot<T> vencidos = new Slot<>();
+    private long tickAtual;
+    private int pendentes;
+
+    public RodaTemporizacao(long tickMs, long inicioMs) {
+        this.tickMs = tickMs;
+        this.tickAtual = inicioMs / tickMs;
+        this.rodas = criarRodas();
+        for (int nivel = 0; nivel < NIVEIS; nivel++) {
+            for (int i = 0; i < SLOTS; i++) {
+                rodas[nivel][i] = new Slot<>();
+            }
+        }
+    }
+
+    // Array genérico: criado com wildcard, só recebe Slot<T> pelo construtor
+    @SuppressWarnings("unchecked")
+    private static <T> Slot<T>[][] criarRodas() {
+        return (Slot<T>[][]) new Slot<?>[NIVEIS][SLOTS];
+    }
+
+    public synchronized Agendamento<T> agendar(T valor, long instanteMs) {
+        Agendamento<T> agendamento = new Agendamento<>(valor, Math.floorDiv(instanteMs, tickMs));
+        posicionar(agendamento);
+        pendentes++;
+        return agendamento;
+    }
+
+    // Retorna false se o agendamento já disparou ou já foi cancelado
+    public synchronized boolean cancelar(Agendamento<T> agendamento) {
+        if (agendamento.slot == null) {
+            return false;
+        }
+        agendamento.slot.remover(agendamento);
+        pendentes--;
+        return true;
+    }
+
+    // Avança a roda até agoraMs e devolve os valores vencidos, na ordem dos ticks
+    public synchronized List<T> avancar(long agoraMs) {
+        List<T> disparados = new ArrayList<>();
+        coletar(vencidos.esvaziar(), disparados);
+
+        long alvo = agoraMs / tickMs;
+        while (tickAtual < alvo) {
+            tickAtual++;
+            cascatear();
+            coletar(rodas[0][(int) (tickAtual & MASCARA)].esvaziar(), disparados);
+        }
+        return disparados;
+    }
+
+    public synchronized int pendentes() {
+        return pendentes;
+    }
+
+    private void posicionar(Agendamento<T> agendamento) {
+        long delta = agendamento.tickExpiracao - tickAtual;
+        if (delta <= 0) {
+            vencidos.adicionar(agendamento);
+            return;
+        }
+        long expiracao = delta >= ALCANCE_MAXIMO ? tickAtual + ALCANCE_MAXIMO - 1 : agendamento.tickExpiracao;
+        long distancia = expiracao - tickAtual;
+        int nivel = 0;
+        while (nivel < NIVEIS - 1 && distancia >= 1L << (BITS_POR_NIVEL * (nivel + 1))) {
+            nivel++;
+        }
+        int indice = (int) ((expiracao >>> (BITS_POR_NIVEL * nivel)) & MASCARA);
+        rodas[nivel][indice].adicionar(agendamento);
+    }
+
+    // Quando um nível completa a volta, o slot corrente do nível acima desce (reposicionado)
+    private void cascatear() {
+        for (int nivel = 1; nivel < NIVEIS; nivel++) {
+            if (((tickAtual >>> (BITS_POR_NIVEL * (nivel - 1))) & MASCARA) != 0) {
+                return;
+            }
+            int indice = (int) ((tickAtual >>> (BITS_POR_NIVEL * nivel)) & MASCARA);
+            Agendamento<T> atual = rodas[nivel][indice].esvaziar();
+            while (atual != null) {
+                Agendamento<T> proximo = atual.proximo;
+                atual.slot = null;
+                if (atual.tickExpiracao <= tickAtual) {
+                    // Vence neste tick: entra no slot do nível 0 que será processado a seguir
+                    rodas[0][(int) (tickAtual & MASCARA)].adicionar(atual);
+                } else {
+                    posicionar(atual);
+                }
+                atual = proximo;
+            }
+        }
+    }
+
+    private void coletar(Agendamento<T> lista, List<T> disparados) {
+        Agendamento<T> atual = lista;
+        while (atual != null) {
+            Agendamento<T> proximo = atual.proximo;
+            atual.slot = null;
+            atual.anterior = null;
+            atual.proximo = null;
+            disparados.add(atual.valor);
+            pendentes--;
+            atual = proximo;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.medsync.notificacao.application.services;
+
+import com.medsync.notificacao.presentation.dto.NotificacaoRequest;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompiledEmailTemplateTest {
+
+    private final CompiledEmailTemplate template = new CompiledEmailTemplate(new FormatadorDataHora());
+
+    @ParameterizedTest
+    @ValueSource(strings = {"criada", "editada", "lembrete", "LEMBRETE", "outro"})
+    void deveGerarMesmoHtmlQueTemplateOriginal(String tipoEvento) {
+        // Arrange
+        NotificacaoRequest notificacao = new NotificacaoRequest(
+            UUID.randomUUID(),
+            "João Silva",
+            "joao@teste.com",
+            "11999999999",
+            "Dra. Maria",
+            "maria@teste.com",
+            "1133334444",
+            LocalDateTime.of(2025, 10, 20, 14, 30),
+            "CONSULTA_CRIADA",
+            "Consulta Agendada com Sucesso",
+            "mensagem",
+            LocalDateTime.now()
+        );
+
+        // Act
+        String html = template.renderizar(notificacao, tipoEvento);
+
+        // Assert
+        assertThat(html).isEqualTo(EmailTemplateLegado.gerarTemplateEmailHtml(notificacao, tipoEvento));
+        assertThat(html).doesNotContain("{{");
+    }
+}
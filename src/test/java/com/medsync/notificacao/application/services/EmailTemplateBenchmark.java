@@ -0,0 +1,71 @@
+package com.medsync.notificacao.application.services;
+
+import com.medsync.notificacao.presentation.dto.NotificacaoRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Compara o template compilado com o String.format original.
+// Execução: mvn -Pbenchmark test -Djmh.filtro=EmailTemplateBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    @Param({"criada", "editada", "lembrete"})
+    private String tipoEvento;
+
+    private CompiledEmailTemplate compilado;
+    private NotificacaoRequest notificacao;
+
+    @Setup
+    public void setUp() {
+        compilado = new CompiledEmailTemplate(new FormatadorDataHora());
+        notificacao = new NotificacaoRequest(
+            UUID.randomUUID(),
+            "João Silva",
+            "joao@teste.com",
+            "11999999999",
+            "Dra. Maria",
+            "maria@teste.com",
+            "1133334444",
+            LocalDateTime.of(2025, 10, 20, 14, 30),
+            "CONSULTA_CRIADA",
+            "Consulta Agendada com Sucesso",
+            "mensagem",
+            LocalDateTime.now()
+        );
+    }
+
+    @Benchmark
+    public String stringFormatOriginal() {
+        return EmailTemplateLegado.gerarTemplateEmailHtml(notificacao, tipoEvento);
+    }
+
+    @Benchmark
+    public String templateCompilado() {
+        return compilado.renderizar(notificacao, tipoEvento);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EmailTemplateBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,47 @@
+package com.medsync.notificacao.application.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FormatadorDataHoraTest {
+
+    private final FormatadorDataHora formatador = new FormatadorDataHora();
+
+    @Test
+    void deveFormatarDataHoraEDiaDaSemanaEmPortugues() {
+        // Arrange
+        LocalDateTime dataHora = formatador.interpretar("2025-10-20T14:30:00");
+
+        // Act
+        FormatadorDataHora.SlotFormatado slot = formatador.formatar(dataHora);
+
+        // Assert
+        assertThat(slot.data()).isEqualTo("20/10/2025");
+        assertThat(slot.hora()).isEqualTo("14:30");
+        assertThat(slot.diaSemana()).isEqualTo("segunda-feira");
+    }
+
+    @Test
+    void deveReutilizarSlotParaMesmoHorario() {
+        // Act
+        FormatadorDataHora.SlotFormatado primeiro = formatador.formatar(LocalDateTime.of(2025, 10, 20, 14, 30));
+        FormatadorDataHora.SlotFormatado segundo = formatador.formatar(LocalDateTime.of(2025, 10, 20, 14, 30, 45));
+
+        // Assert
+        assertThat(segundo).isSameAs(primeiro);
+        assertThat(formatador.slotsMemorizados()).isEqualTo(1);
+    }
+
+    @Test
+    void deveTratarDataAusenteComoVazia() {
+        // Act
+        FormatadorDataHora.SlotFormatado slot = formatador.formatar(formatador.interpretar(" "));
+
+        // Assert
+        assertThat(slot.data()).isEmpty();
+        assertThat(slot.hora()).isEmpty();
+    }
+}
@@ -0,0 +1,178 @@
+package com.medsync.notificacao.application.services;
+
+import com.medsync.notificacao.infrastructure.events.NotificacaoClientePublisher;
+import com.medsync.notificacao.infrastructure.scheduling.LembreteJournal;
+import com.medsync.notificacao.presentation.dto.NotificacaoRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class LembreteServiceTest {
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private NotificacaoClientePublisher clientePublisher;
+
+    private final NotificacaoTemplateService templateService =
+        new NotificacaoTemplateService(NotificacaoTemplateServiceTest.criarTemplateEngine(), new FormatadorDataHora());
+
+    private SimpleMeterRegistry meterRegistry;
+    private LembreteService lembreteService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        LembreteJournal journal = new LembreteJournal(meterRegistry, "", 1024, 3_600_000, 100_000);
+        lembreteService = new LembreteService(emailService, clientePublisher, templateService, journal,
+            meterRegistry, new MockEnvironment(), true, 1000, "America/Sao_Paulo");
+    }
+
+    @Test
+    void deveReagendarLembretesPendentesQuandoADataMuda() {
+        // Arrange: antecedências padrão de 24, 2 e 1 hora
+        UUID consultaId = UUID.randomUUID();
+        lembreteService.agendarLembretes(criarNotificacao(consultaId, LocalDateTime.now().plusDays(3)));
+
+        // Act
+        lembreteService.reagendarLembretes(criarNotificacao(consultaId, LocalDateTime.now().plusDays(5)));
+
+        // Assert
+        assertThat(lembreteService.pendentes()).isEqualTo(3);
+        assertThat(meterRegistry.counter("notificacao.lembretes.reagendados").count()).isEqualTo(3);
+    }
+
+    @Test
+    void deveContarComoSuprimidosOsLembretesQueNaoCabemNaNovaData() {
+        // Arrange: 3 pendentes; na nova data, daqui a 90 minutos, só o de 1 hora ainda cabe
+        UUID consultaId = UUID.randomUUID();
+        lembreteService.agendarLembretes(criarNotificacao(consultaId, LocalDateTime.now().plusDays(3)));
+
+        // Act
+        lembreteService.reagendarLembretes(criarNotificacao(consultaId,
+            LocalDateTime.now(ZoneId.of("America/Sao_Paulo")).plusMinutes(90)));
+
+        // Assert
+        assertThat(lembreteService.pendentes()).isEqualTo(1);
+        assertThat(meterRegistry.counter("notificacao.lembretes.reagendados").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("notificacao.lembretes.suprimidos").count()).isEqualTo(2);
+    }
+
+    @Test
+    void deveSuprimirLembretesDeConsultaCancelada() {
+        // Arrange
+        UUID consultaId = UUID.randomUUID();
+        lembreteService.agendarLembretes(criarNotificacao(consultaId, LocalDateTime.now().plusDays(3)));
+        lembreteService.agendarLembretes(criarNotificacao(UUID.randomUUID(), LocalDateTime.now().plusDays(3)));
+
+        // Act
+        lembreteService.cancelarLembretes(consultaId);
+
+        // Assert
+        assertThat(lembreteService.pendentes()).isEqualTo(3);
+        assertThat(meterRegistry.counter("notificacao.lembretes.suprimidos").count()).isEqualTo(3);
+    }
+
+    @Test
+    void deveDispararLembreteComOsContatosDaConsultaQuandoARodaAvanca() {
+        // Arrange: antecedência de 1 hora e consulta daqui a 1 hora e meio segundo
+        LembreteService lembretes = new LembreteService(emailService, clientePublisher, templateService,
+            new LembreteJournal(meterRegistry, "", 1024, 3_600_000, 100_000), meterRegistry,
+            new MockEnvironment().withProperty("app.notificacao.lembrete-horas", "1"), true, 10, "America/Sao_Paulo");
+        UUID consultaId = UUID.randomUUID();
+        LocalDateTime dataHora = LocalDateTime.now(ZoneId.of("America/Sao_Paulo")).plusHours(1).plusNanos(500_000_000);
+        lembretes.agendarLembretes(criarNotificacao(consultaId, dataHora));
+
+        // Act
+        await().atMost(Duration.ofSeconds(5)).until(() -> {
+            lembretes.avancar();
+            return lembretes.pendentes() == 0;
+        });
+
+        // Assert
+        ArgumentCaptor<NotificacaoRequest> publicada = ArgumentCaptor.forClass(NotificacaoRequest.class);
+        verify(clientePublisher).publicar(publicada.capture());
+        ArgumentCaptor<NotificacaoRequest> enviada = ArgumentCaptor.forClass(NotificacaoRequest.class);
+        verify(emailService).enviarEmailLembrete(enviada.capture(), eq(1), anyLong());
+        assertThat(enviada.getValue()).isEqualTo(publicada.getValue());
+        NotificacaoRequest lembrete = publicada.getValue();
+        assertThat(lembrete.tipoNotificacao()).isEqualTo(LembreteService.TIPO_LEMBRETE);
+        assertThat(lembrete.consultaId()).isEqualTo(consultaId);
+        assertThat(lembrete.pacienteEmail()).isEqualTo("joao@email.com");
+        assertThat(lembrete.medicoNome()).isEqualTo("Dra. Maria Santos");
+        assertThat(lembrete.dataHora()).isEqualTo(dataHora);
+        assertThat(lembrete.mensagem()).contains("João Silva", "Dra. Maria Santos", "1 hora");
+        assertThat(meterRegistry.counter("notificacao.lembretes.disparados").count()).isEqualTo(1);
+    }
+
+    @Test
+    void deveSuprimirLembreteJaEntreguePelaRodaQuandoAConsultaEReagendadaAntesDoDisparo() {
+        // Arrange: duas consultas com lembrete de 1 hora no mesmo tick; ao disparar a primeira,
+        // a outra é reagendada antes de o seu lembrete, já retirado da roda, ser enviado
+        LembreteService lembretes = new LembreteService(emailService, clientePublisher, templateService,
+            new LembreteJournal(meterRegistry, "", 1024, 3_600_000, 100_000), meterRegistry,
+            new MockEnvironment().withProperty("app.notificacao.lembrete-horas", "1"), true, 10, "America/Sao_Paulo");
+        UUID primeira = UUID.randomUUID();
+        UUID segunda = UUID.randomUUID();
+        LocalDateTime dataHora = LocalDateTime.now(ZoneId.of("America/Sao_Paulo")).plusHours(1).plusNanos(500_000_000);
+        lembretes.agendarLembretes(criarNotificacao(primeira, dataHora));
+        lembretes.agendarLembretes(criarNotificacao(segunda, dataHora));
+        doAnswer(invocacao -> {
+            NotificacaoRequest disparada = invocacao.getArgument(0);
+            UUID outra = disparada.consultaId().equals(primeira) ? segunda : primeira;
+            lembretes.reagendarLembretes(criarNotificacao(outra, LocalDateTime.now().plusDays(3)));
+            return null;
+        }).when(clientePublisher).publicar(any(NotificacaoRequest.class));
+
+        // Act
+        await().atMost(Duration.ofSeconds(5)).until(() -> {
+            lembretes.avancar();
+            return meterRegistry.counter("notificacao.lembretes.disparados").count() > 0;
+        });
+
+        // Assert: só o lembrete novo da consulta reagendada continua pendente
+        verify(clientePublisher, times(1)).publicar(any(NotificacaoRequest.class));
+        verify(emailService, times(1)).enviarEmailLembrete(any(NotificacaoRequest.class), eq(1), anyLong());
+        assertThat(lembretes.pendentes()).isEqualTo(1);
+        assertThat(meterRegistry.counter("notificacao.lembretes.disparados").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("notificacao.lembretes.suprimidos").count()).isEqualTo(1);
+    }
+
+    private NotificacaoRequest criarNotificacao(UUID consultaId, LocalDateTime dataHora) {
+        return new NotificacaoRequest(
+            consultaId,
+            "João Silva",
+            "joao@email.com",
+            "11999999999",
+            "Dra. Maria Santos",
+            "maria@email.com",
+            "11888888888",
+            dataHora,
+            "CONSULTA_CRIADA",
+            "Consulta Agendada",
+            "mensagem",
+            LocalDateTime.now()
+        );
+    }
+}
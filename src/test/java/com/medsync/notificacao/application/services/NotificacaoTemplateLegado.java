@@ -0,0 +1,128 @@
+package com.medsync.notificacao.application.services;
+
+import com.medsync.notificacao.domain.events.ConsultaCriadaNotificacaoEvent;
+import com.medsync.notificacao.domain.events.ConsultaEditadaNotificacaoEvent;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+// Corpos de texto originais (String.format a cada notificação), mantidos nos testes como
+// referência de saída para os templates consulta-criada.txt e consulta-editada.txt
+final class NotificacaoTemplateLegado {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private NotificacaoTemplateLegado() {
+    }
+
+    static String mensagemConsultaCriada(ConsultaCriadaNotificacaoEvent evento) {
+        LocalDateTime dataHora = LocalDateTime.parse(evento.dataHora());
+        String medicoEspecialidade = evento.medicoEspecialidade();
+        String observacoes = evento.observacoes();
+
+        return String.format("""
+            Olá, %s!
+            
+            Sua consulta foi agendada com sucesso:
+            
+            📅 Data: %s
+            ⏰ Horário: %s
+            👨‍⚕️ Médico: %s
+            🏥 Especialidade: %s
+            %s
+            
+            ⚠️ Importante:
+            • Chegue com 15 minutos de antecedência
+            • Traga um documento com foto
+            • Em caso de desistência, cancele com pelo menos 24h de antecedência
+            
+            Em caso de dúvidas, entre em contato conosco.
+            
+            Atenciosamente,
+            Equipe MedSync
+            """,
+            evento.pacienteNome(),
+            dataHora.format(DATE_FORMATTER),
+            dataHora.format(DateTimeFormatter.ofPattern("HH:mm")),
+            evento.medicoNome(),
+            medicoEspecialidade != null ? medicoEspecialidade : "Não informada",
+            observacoes != null && !observacoes.trim().isEmpty() ?
+                "📝 Observações: " + observacoes + "\n" : ""
+        );
+    }
+
+    static String mensagemConsultaEditada(ConsultaEditadaNotificacaoEvent evento) {
+        String novaDataHora = evento.novaDataHora();
+        String observacoes = evento.observacoes();
+        String medicoEspecialidade = evento.medicoEspecialidade();
+        Map<String, Object> alteracoes = evento.alteracoes();
+
+        StringBuilder camposAlterados = new StringBuilder();
+
+        if (alteracoes != null && !alteracoes.isEmpty()) {
+            camposAlterados.append("Os seguintes dados foram alterados:\n\n");
+
+            if (alteracoes.containsKey("dataHora")) {
+                LocalDateTime dataHora = LocalDateTime.parse(novaDataHora);
+                camposAlterados.append(String.format("📅 Nova Data: %s\n", dataHora.format(DATE_FORMATTER)));
+                camposAlterados.append(String.format("⏰ Novo Horário: %s\n", dataHora.format(DateTimeFormatter.ofPattern("HH:mm"))));
+            }
+
+            if (alteracoes.containsKey("observacoes")) {
+                camposAlterados.append(String.format("📝 Observações: %s\n",
+                    observacoes != null && !observacoes.trim().isEmpty() ? observacoes : "Removidas"));
+            }
+
+            if (alteracoes.containsKey("status")) {
+                camposAlterados.append(String.format("📊 Status: %s\n", formatarStatus(alteracoes.get("status").toString())));
+            }
+
+            if (alteracoes.containsKey("especialidadeId")) {
+                camposAlterados.append(String.format("🏥 Especialidade: %s\n",
+                    medicoEspecialidade != null ? medicoEspecialidade : "Não informada"));
+            }
+        } else {
+            if (novaDataHora != null && !novaDataHora.trim().isEmpty()) {
+                LocalDateTime dataHora = LocalDateTime.parse(novaDataHora);
+                camposAlterados.append("📅 Data: ").append(dataHora.format(DATE_FORMATTER)).append("\n");
+                camposAlterados.append("⏰ Horário: ").append(dataHora.format(DateTimeFormatter.ofPattern("HH:mm"))).append("\n");
+            }
+            if (observacoes != null && !observacoes.trim().isEmpty()) {
+                camposAlterados.append("📝 Observações: ").append(observacoes).append("\n");
+            }
+        }
+
+        return String.format("""
+            Olá, %s!
+            
+            Sua consulta foi atualizada:
+            
+            %s
+            👨‍⚕️ Médico: %s
+            
+            ⚠️ Importante:
+            • Verifique os novos dados da consulta
+            • Chegue com 15 minutos de antecedência
+            • Em caso de dúvidas, entre em contato conosco
+            
+            Atenciosamente,
+            Equipe MedSync
+            """,
+            evento.pacienteNome(),
+            camposAlterados.toString(),
+            evento.medicoNome()
+        );
+    }
+
+    private static String formatarStatus(String status) {
+        return switch (status.toUpperCase()) {
+            case "AGENDADA" -> "🟢 Agendada";
+            case "CONFIRMADA" -> "✅ Confirmada";
+            case "CANCELADA" -> "❌ Cancelada";
+            case "REALIZADA" -> "✅ Realizada";
+            case "INATIVA" -> "⏸️ Inativa";
+            default -> "📋 " + status;
+        };
+    }
+}
@@ -0,0 +1,124 @@
+package com.medsync.notificacao.application.services;
+
+import com.medsync.notificacao.domain.events.ConsultaCriadaNotificacaoEvent;
+import com.medsync.notificacao.domain.events.ConsultaEditadaNotificacaoEvent;
+import com.medsync.notificacao.infrastructure.config.TemplateConfig;
+import com.medsync.notificacao.infrastructure.scheduling.ContatoConsulta;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.ITemplateEngine;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificacaoTemplateServiceTest {
+
+    private final NotificacaoTemplateService templateService =
+        new NotificacaoTemplateService(criarTemplateEngine(), new FormatadorDataHora());
+
+    @Test
+    void deveGerarMesmoTextoQueOriginalParaConsultaCriada() {
+        // Arrange
+        ConsultaCriadaNotificacaoEvent comObservacoes = consultaCriada("Trazer exames anteriores", "Cardiologia");
+        ConsultaCriadaNotificacaoEvent semObservacoes = consultaCriada("  ", null);
+
+        // Act / Assert
+        assertThat(templateService.gerarTemplateConsultaCriada(comObservacoes).mensagem())
+            .isEqualTo(NotificacaoTemplateLegado.mensagemConsultaCriada(comObservacoes));
+        assertThat(templateService.gerarTemplateConsultaCriada(semObservacoes).mensagem())
+            .isEqualTo(NotificacaoTemplateLegado.mensagemConsultaCriada(semObservacoes));
+    }
+
+    @Test
+    void deveGerarMesmoTextoQueOriginalParaConsultaEditadaComAlteracoes() {
+        // Arrange
+        Map<String, Object> alteracoes = new HashMap<>();
+        alteracoes.put("dataHora", "2025-10-21T09:00:00");
+        alteracoes.put("observacoes", "");
+        alteracoes.put("status", "CONFIRMADA");
+        alteracoes.put("especialidadeId", "42");
+        ConsultaEditadaNotificacaoEvent evento = consultaEditada(null, alteracoes);
+
+        // Act
+        String mensagem = templateService.gerarTemplateConsultaEditada(evento).mensagem();
+
+        // Assert
+        assertThat(mensagem).isEqualTo(NotificacaoTemplateLegado.mensagemConsultaEditada(evento));
+        assertThat(mensagem).contains("📊 Status: ✅ Confirmada", "📝 Observações: Removidas");
+    }
+
+    @Test
+    void deveGerarMesmoTextoQueOriginalParaConsultaEditadaSomenteComData() {
+        // Arrange
+        ConsultaEditadaNotificacaoEvent evento = consultaEditada("Jejum de 8 horas", Map.of("dataHora", "2025-10-21T09:00:00"));
+
+        // Act / Assert
+        assertThat(templateService.gerarTemplateConsultaEditada(evento).mensagem())
+            .isEqualTo(NotificacaoTemplateLegado.mensagemConsultaEditada(evento));
+    }
+
+    @Test
+    void deveGerarMesmoTextoQueOriginalParaConsultaEditadaSemAlteracoes() {
+        // Arrange
+        ConsultaEditadaNotificacaoEvent evento = consultaEditada("Jejum de 8 horas", null);
+
+        // Act / Assert
+        assertThat(templateService.gerarTemplateConsultaEditada(evento).mensagem())
+            .isEqualTo(NotificacaoTemplateLegado.mensagemConsultaEditada(evento));
+    }
+
+    @Test
+    void deveGerarTextoDoLembreteComAntecedencia() {
+        // Arrange
+        ContatoConsulta consulta = new ContatoConsulta(UUID.fromString("7b0b3c4e-4c1e-4a43-9f52-2b0f4a1d9c11"),
+            "João Silva", "joao@teste.com", "11999999999", "Dra. Maria", "maria@teste.com", "1133334444",
+            LocalDateTime.of(2025, 10, 20, 14, 30), "CONSULTA_CRIADA");
+
+        // Act
+        NotificacaoTemplateService.NotificacaoTemplate umaHora = templateService.gerarTemplateLembrete(consulta, 1);
+        NotificacaoTemplateService.NotificacaoTemplate vinteQuatroHoras = templateService.gerarTemplateLembrete(consulta, 24);
+
+        // Assert
+        assertThat(umaHora.tipoNotificacao()).isEqualTo("LEMBRETE");
+        assertThat(umaHora.titulo()).isEqualTo("Lembrete: sua consulta é em 1 hora");
+        assertThat(vinteQuatroHoras.titulo()).isEqualTo("Lembrete: sua consulta é em 24 horas");
+        assertThat(umaHora.mensagem()).isEqualTo("""
+            Olá, João Silva!
+
+            Lembrete: sua consulta com Dra. Maria é em 1 hora.
+
+            📅 Data: 20/10/2025 (segunda-feira)
+            ⏰ Horário: 14:30
+
+            Chegue com 15 minutos de antecedência.
+
+            Atenciosamente,
+            Equipe MedSync""");
+    }
+
+    private ConsultaCriadaNotificacaoEvent consultaCriada(String observacoes, String especialidade) {
+        return new ConsultaCriadaNotificacaoEvent("7b0b3c4e-4c1e-4a43-9f52-2b0f4a1d9c11", "João Silva", "joao@teste.com",
+            "11999999999", "Dra. Maria", "maria@teste.com", "1133334444", especialidade,
+            "2025-10-20T14:30:00", observacoes, "AGENDADA", "2025-10-01T09:00:00");
+    }
+
+    private ConsultaEditadaNotificacaoEvent consultaEditada(String observacoes, Map<String, Object> alteracoes) {
+        return new ConsultaEditadaNotificacaoEvent("7b0b3c4e-4c1e-4a43-9f52-2b0f4a1d9c11", "João Silva", "joao@teste.com",
+            "11999999999", "Dra. Maria", "maria@teste.com", "1133334444", "Cardiologia",
+            "2025-10-21T09:00:00", observacoes, "CONFIRMADA", alteracoes, "usuario-1", "2025-10-01T09:00:00");
+    }
+
+    // Mesma configuração da aplicação, lendo os templates de src/main/resources/templates/email
+    static ITemplateEngine criarTemplateEngine() {
+        TemplateConfig config = new TemplateConfig();
+        ReflectionTestUtils.setField(config, "templatePath", "classpath:/templates/email/");
+        ReflectionTestUtils.setField(config, "cacheHabilitado", true);
+        ReflectionTestUtils.setField(config, "cacheTtlMs", 0L);
+        return config.templateEngine(new StaticApplicationContext());
+    }
+}
@@ -0,0 +1,55 @@
+package com.medsync.notificacao.application.services;
+
+import com.medsync.notificacao.presentation.dto.NotificacaoRequest;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ThymeleafEmailTemplateRendererTest {
+
+    private final ThymeleafEmailTemplateRenderer renderer = new ThymeleafEmailTemplateRenderer(
+        NotificacaoTemplateServiceTest.criarTemplateEngine(), new FormatadorDataHora());
+
+    @ParameterizedTest
+    @ValueSource(strings = {"criada", "editada", "lembrete", "LEMBRETE", "outro"})
+    void deveGerarMesmoHtmlQueTemplateOriginal(String tipoEvento) {
+        // Arrange
+        NotificacaoRequest notificacao = new NotificacaoRequest(
+            UUID.randomUUID(),
+            "João Silva",
+            "joao@teste.com",
+            "11999999999",
+            "Dra. Maria",
+            "maria@teste.com",
+            "1133334444",
+            LocalDateTime.of(2025, 10, 20, 14, 30),
+            "CONSULTA_CRIADA",
+            "Consulta Agendada com Sucesso",
+            "mensagem",
+            LocalDateTime.now()
+        );
+
+        // Act
+        String html = renderer.renderizar(notificacao, tipoEvento);
+
+        // Assert: o Thymeleaf preserva a indentação do arquivo e remove os atributos th:*,
+        // então a comparação ignora apenas diferenças de espaço em branco
+        assertThat(normalizar(html))
+            .isEqualTo(normalizar(EmailTemplateLegado.gerarTemplateEmailHtml(notificacao, tipoEvento)));
+        // Nenhum atributo th:* nem expressão inline ([(...)] / [[...]]) sobra no HTML; "th:" sozinho
+        // aparece no CSS (max-width:)
+        assertThat(html).doesNotContainPattern("\\sth:[a-z]+=");
+        assertThat(html).doesNotContain("[(", "[[");
+    }
+
+    private String normalizar(String html) {
+        return html.replaceAll(">\\s+<", "><")
+            .replaceAll("\\s+", " ")
+            .replace(" >", ">")
+            .trim();
+    }
+}
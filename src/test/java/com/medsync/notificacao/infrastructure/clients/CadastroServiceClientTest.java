@@ -0,0 +1,164 @@
+package com.medsync.notificacao.infrastructure.clients;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class CadastroServiceClientTest {
+
+    private static final String URL = "http://cadastro";
+
+    private MockRestServiceServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private CircuitBreaker circuitBreaker;
+    private CadastroServiceClient client;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = CircuitBreaker.ofDefaults("cadastro-teste");
+        CadastroClientProperties properties = new CadastroClientProperties(URL, false,
+            new CadastroClientProperties.Cache(100, 60_000, 30_000, 5_000, 600_000),
+            new CadastroClientProperties.CircuitBreaker(50, 2_000, 50, 20, 10, 30_000, 3),
+            new CadastroClientProperties.Bulkhead(10, 0),
+            new CadastroClientProperties.Lote(true, 100, 50));
+        client = new CadastroServiceClient(restTemplate, properties, circuitBreaker,
+                                           Bulkhead.ofDefaults("cadastro-teste"), meterRegistry);
+    }
+
+    @Test
+    void deveBuscarMedicoUmaUnicaVezQuandoEmCache() {
+        // Arrange
+        UUID medicoId = UUID.randomUUID();
+        server.expect(once(), requestTo(URL + "/usuarios/" + medicoId))
+            .andRespond(withSuccess("{\"id\":\"" + medicoId + "\",\"nome\":\"Dra. Maria\",\"ativo\":true}",
+                                    MediaType.APPLICATION_JSON));
+
+        // Act
+        CadastroServiceClient.UserResponse primeira = client.buscarMedico(medicoId);
+        CadastroServiceClient.UserResponse segunda = client.buscarMedico(medicoId);
+
+        // Assert
+        server.verify();
+        assertThat(primeira.nome()).isEqualTo("Dra. Maria");
+        assertThat(segunda).isSameAs(primeira);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "cadastro.usuarios").tag("result", "hit")
+            .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void deveManterEmCacheUsuarioNaoEncontrado() {
+        // Arrange
+        UUID pacienteId = UUID.randomUUID();
+        server.expect(once(), requestTo(URL + "/usuarios/" + pacienteId))
+            .andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        // Act
+        CadastroServiceClient.UserResponse primeira = client.buscarPaciente(pacienteId);
+        CadastroServiceClient.UserResponse segunda = client.buscarPaciente(pacienteId);
+
+        // Assert
+        server.verify();
+        assertThat(primeira).isNull();
+        assertThat(segunda).isNull();
+    }
+
+    @Test
+    void naoDeveManterEmCacheErroDoServidor() {
+        // Arrange
+        UUID pacienteId = UUID.randomUUID();
+        server.expect(requestTo(URL + "/usuarios/" + pacienteId))
+            .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+        server.expect(requestTo(URL + "/usuarios/" + pacienteId))
+            .andRespond(withSuccess("{\"id\":\"" + pacienteId + "\",\"nome\":\"João\",\"ativo\":true}",
+                                    MediaType.APPLICATION_JSON));
+
+        // Act
+        CadastroServiceClient.UserResponse primeira = client.buscarPaciente(pacienteId);
+        CadastroServiceClient.UserResponse segunda = client.buscarPaciente(pacienteId);
+
+        // Assert
+        server.verify();
+        assertThat(primeira).isNull();
+        assertThat(segunda.nome()).isEqualTo("João");
+    }
+
+    @Test
+    void deveAgruparBuscasDeVariosUsuariosNumaUnicaRequisicao() {
+        // Arrange
+        UUID pacienteId = UUID.randomUUID();
+        UUID medicoId = UUID.randomUUID();
+        UUID inexistenteId = UUID.randomUUID();
+        server.expect(once(), requestTo(startsWith(URL + "/usuarios?ids=")))
+            .andRespond(withSuccess("[{\"id\":\"" + pacienteId + "\",\"nome\":\"João\",\"ativo\":true},"
+                                    + "{\"id\":\"" + medicoId + "\",\"nome\":\"Dra. Maria\",\"ativo\":true}]",
+                                    MediaType.APPLICATION_JSON));
+
+        // Act
+        Map<UUID, CadastroServiceClient.UserResponse> usuarios =
+            client.buscarUsuarios(List.of(pacienteId, medicoId, inexistenteId));
+        CadastroServiceClient.UserResponse medico = client.buscarMedico(medicoId);
+
+        // Assert
+        server.verify();
+        assertThat(usuarios).containsOnlyKeys(pacienteId, medicoId);
+        assertThat(medico.nome()).isEqualTo("Dra. Maria");
+        assertThat(client.buscarPaciente(inexistenteId)).isNull();
+    }
+
+    @Test
+    void deveBuscarPacienteEMedicoEmParaleloNaVarianteAssincrona() {
+        // Arrange
+        UUID pacienteId = UUID.randomUUID();
+        UUID medicoId = UUID.randomUUID();
+        server.expect(once(), requestTo(startsWith(URL + "/usuarios?ids=")))
+            .andRespond(withSuccess("[{\"id\":\"" + pacienteId + "\",\"nome\":\"João\",\"ativo\":true},"
+                                    + "{\"id\":\"" + medicoId + "\",\"nome\":\"Dra. Maria\",\"ativo\":true}]",
+                                    MediaType.APPLICATION_JSON));
+
+        // Act
+        CompletableFuture<CadastroServiceClient.UserResponse> paciente = client.buscarPacienteAsync(pacienteId);
+        CompletableFuture<CadastroServiceClient.UserResponse> medico = client.buscarMedicoAsync(medicoId);
+
+        // Assert
+        assertThat(paciente.join().nome()).isEqualTo("João");
+        assertThat(medico.join().nome()).isEqualTo("Dra. Maria");
+        server.verify();
+    }
+
+    @Test
+    void deveUsarDadosDoEventoSemChamarCadastroComCircuitoAberto() {
+        // Arrange
+        UUID pacienteId = UUID.randomUUID();
+        CadastroServiceClient.UserResponse doEvento = new CadastroServiceClient.UserResponse(
+            pacienteId, "João do Evento", null, "joao@teste.com", null, true, null, null, List.of());
+        circuitBreaker.transitionToOpenState();
+
+        // Act
+        CadastroServiceClient.UserResponse paciente = client.buscarPaciente(pacienteId, () -> doEvento);
+
+        // Assert
+        server.verify();
+        assertThat(paciente).isSameAs(doEvento);
+    }
+}
@@ -0,0 +1,141 @@
+package com.medsync.notificacao.infrastructure.email;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class EmailBatchSenderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    private EmailBatchSender batchSender;
+
+    @AfterEach
+    void tearDown() {
+        if (batchSender != null) {
+            batchSender.shutdown();
+        }
+    }
+
+    @Test
+    void deveAgruparEnviosDaJanelaNumUnicoLote() throws Exception {
+        // Arrange: um worker, janela longa e lotes de até 3 mensagens
+        List<Integer> lotes = new CopyOnWriteArrayList<>();
+        CountDownLatch enviados = new CountDownLatch(2);
+        doAnswer(invocation -> {
+            lotes.add(invocation.getArguments().length);
+            enviados.countDown();
+            return null;
+        }).when(mailSender).send(any(MimeMessage[].class));
+        batchSender = criar(3, 1_000, 1, 100, EmailDispatchExecutor.PoliticaRejeicao.CALLER_RUNS);
+
+        // Act
+        List<CompletableFuture<Void>> resultados = IntStream.range(0, 4)
+            .mapToObj(i -> batchSender.enviar(mensagem()))
+            .toList();
+
+        // Assert
+        assertThat(enviados.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(lotes).containsExactly(3, 1);
+        CompletableFuture.allOf(resultados.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void deveEnviarPendentesAntesDeEncerrar() throws Exception {
+        // Arrange: o primeiro envio fica preso no servidor SMTP enquanto outros entram na fila
+        CountDownLatch primeiroEmAndamento = new CountDownLatch(1);
+        CountDownLatch liberarSmtp = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            primeiroEmAndamento.countDown();
+            liberarSmtp.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(mailSender).send(any(MimeMessage[].class));
+        batchSender = criar(1, 0, 1, 100, EmailDispatchExecutor.PoliticaRejeicao.CALLER_RUNS);
+        CompletableFuture<Void> primeiro = batchSender.enviar(mensagem());
+        assertThat(primeiroEmAndamento.await(5, TimeUnit.SECONDS)).isTrue();
+        List<CompletableFuture<Void>> pendentes = IntStream.range(0, 3)
+            .mapToObj(i -> batchSender.enviar(mensagem()))
+            .toList();
+
+        // Act
+        Thread encerramento = new Thread(batchSender::shutdown);
+        encerramento.start();
+        liberarSmtp.countDown();
+        encerramento.join(TimeUnit.SECONDS.toMillis(5));
+
+        // Assert: nada do que já estava na fila é descartado
+        assertThat(encerramento.isAlive()).isFalse();
+        assertThat(primeiro).isCompleted();
+        assertThat(pendentes).allSatisfy(resultado -> assertThat(resultado).isCompleted().isNotCompletedExceptionally());
+        assertThat(batchSender.enviar(mensagem())).isCompletedExceptionally();
+    }
+
+    @Test
+    void deveEnviarNaThreadChamadoraComFilaCheia() {
+        // Arrange: sem workers, a fila de capacidade 1 enche no primeiro envio
+        batchSender = criar(10, 0, 0, 1, EmailDispatchExecutor.PoliticaRejeicao.CALLER_RUNS);
+        batchSender.enviar(mensagem());
+        MimeMessage excedente = mensagem();
+
+        // Act
+        CompletableFuture<Void> resultado = batchSender.enviar(excedente);
+
+        // Assert
+        assertThat(resultado).isCompleted();
+        verify(mailSender).send(excedente);
+        assertThat(meterRegistry.get("notificacao.email.batch.fila").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("notificacao.email.batch.saturado").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void deveRecusarEnvioComFilaCheiaEPoliticaAbort() {
+        // Arrange
+        batchSender = criar(10, 0, 0, 1, EmailDispatchExecutor.PoliticaRejeicao.ABORT);
+        batchSender.enviar(mensagem());
+        MimeMessage excedente = mensagem();
+
+        // Act
+        CompletableFuture<Void> resultado = batchSender.enviar(excedente);
+
+        // Assert: falha transitória, que a lógica de retentativa do EmailService reenvia com backoff
+        assertThat(resultado).isCompletedExceptionally();
+        Throwable erro = resultado.handle((ok, e) -> e).join();
+        assertThat(erro).isInstanceOf(MailSendException.class);
+        assertThat(SmtpFalhaClassifier.isTransitoria(erro)).isTrue();
+        verify(mailSender, never()).send(excedente);
+    }
+
+    private EmailBatchSender criar(int maxMensagens, long janelaMs, int workers, int capacidade,
+                                   EmailDispatchExecutor.PoliticaRejeicao politica) {
+        return new EmailBatchSender(mailSender, true, maxMensagens, janelaMs, workers, capacidade, politica, 5, meterRegistry);
+    }
+
+    private MimeMessage mensagem() {
+        return new MimeMessage(Session.getInstance(new Properties()));
+    }
+}
@@ -0,0 +1,107 @@
+package com.medsync.notificacao.infrastructure.email;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmailDespachoPriorizadoTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EmailDispatchExecutor dispatchExecutor = new EmailDispatchExecutor(1, 1, 100,
+        EmailDispatchExecutor.PoliticaRejeicao.CALLER_RUNS, 5, meterRegistry);
+    // 2 envios por segundo, sem rajada e sem jitter
+    private final EmailDespachoPriorizado despacho = new EmailDespachoPriorizado(dispatchExecutor, meterRegistry,
+        true, 2, 1, 0, 2, 100);
+
+    @AfterEach
+    void tearDown() {
+        despacho.shutdown();
+        dispatchExecutor.shutdown();
+    }
+
+    @Test
+    void deveEntregarPorPrioridadeQuandoLimitadoPelaTaxa() throws InterruptedException {
+        // Arrange: o primeiro envio consome o único token
+        List<String> ordem = new CopyOnWriteArrayList<>();
+        CountDownLatch primeiro = new CountDownLatch(1);
+        CountDownLatch todos = new CountDownLatch(4);
+        despacho.submeter(EmailDespachoPriorizado.Prioridade.TRANSACIONAL, () -> {
+            primeiro.countDown();
+            todos.countDown();
+        });
+        assertThat(primeiro.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Act
+        despacho.submeter(despacho.prioridadeLembrete(24), registrar(ordem, "lembrete-24h", todos));
+        despacho.submeter(despacho.prioridadeLembrete(1), registrar(ordem, "lembrete-1h", todos));
+        despacho.submeter(EmailDespachoPriorizado.Prioridade.TRANSACIONAL, registrar(ordem, "consulta-editada", todos));
+
+        // Assert
+        assertThat(todos.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(ordem).containsExactly("consulta-editada", "lembrete-1h", "lembrete-24h");
+        assertThat(meterRegistry.get("notificacao.email.despacho.lag").tag("prioridade", "lembrete").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void deveLimitarNovasTentativasPelaTaxaDoDespacho() throws InterruptedException {
+        // Arrange: o primeiro envio consome o único token
+        List<String> ordem = new CopyOnWriteArrayList<>();
+        CountDownLatch primeiro = new CountDownLatch(1);
+        CountDownLatch todos = new CountDownLatch(2);
+        despacho.submeter(EmailDespachoPriorizado.Prioridade.TRANSACIONAL, primeiro::countDown);
+        assertThat(primeiro.await(5, TimeUnit.SECONDS)).isTrue();
+        long inicio = System.nanoTime();
+
+        // Act: nova tentativa sem backoff e um lembrete, disputando o mesmo token bucket
+        despacho.resubmeter(EmailDespachoPriorizado.Prioridade.TRANSACIONAL, registrar(ordem, "nova-tentativa", todos), 0);
+        despacho.submeter(despacho.prioridadeLembrete(24), registrar(ordem, "lembrete-24h", todos));
+
+        // Assert: 2 por segundo, então o segundo envio depois do primeiro leva ao menos ~1 s
+        assertThat(todos.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(ordem).containsExactly("nova-tentativa", "lembrete-24h");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio)).isGreaterThanOrEqualTo(900);
+        assertThat(despacho.pendentes()).isZero();
+    }
+
+    @Test
+    void deveEntregarNoEncerramentoOPendenteQueAguardavaToken() throws InterruptedException {
+        // Arrange: token consumido; o próximo fica com a thread despachante esperando token
+        CountDownLatch primeiro = new CountDownLatch(1);
+        CountDownLatch aguardando = new CountDownLatch(1);
+        despacho.submeter(EmailDespachoPriorizado.Prioridade.TRANSACIONAL, primeiro::countDown);
+        assertThat(primeiro.await(5, TimeUnit.SECONDS)).isTrue();
+        despacho.submeter(EmailDespachoPriorizado.Prioridade.TRANSACIONAL, aguardando::countDown);
+        Thread.sleep(100);
+
+        // Act
+        despacho.shutdown();
+
+        // Assert
+        assertThat(aguardando.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(despacho.pendentes()).isZero();
+    }
+
+    @Test
+    void deveRecusarTaxaNaoPositiva() {
+        // Act / Assert
+        assertThatThrownBy(() -> new EmailDespachoPriorizado(dispatchExecutor, meterRegistry, true, 0, 1, 0, 2, 100))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("taxa-por-segundo");
+    }
+
+    private Runnable registrar(List<String> ordem, String envio, CountDownLatch todos) {
+        return () -> {
+            ordem.add(envio);
+            todos.countDown();
+        };
+    }
+}
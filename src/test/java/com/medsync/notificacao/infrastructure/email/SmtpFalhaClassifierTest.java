@@ -0,0 +1,53 @@
+package com.medsync.notificacao.infrastructure.email;
+
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
+
+import java.net.ConnectException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SmtpFalhaClassifierTest {
+
+    @Test
+    void deveTratarRespostaSmtp4xxComoTransitoria() throws Exception {
+        // Arrange
+        SMTPAddressFailedException falha = new SMTPAddressFailedException(
+            new InternetAddress("paciente@teste.com"), "RCPT TO", 451, "Try again later");
+        MailSendException erro = new MailSendException(Map.of("mensagem", falha));
+
+        // Act & Assert
+        assertThat(SmtpFalhaClassifier.isTransitoria(erro)).isTrue();
+    }
+
+    @Test
+    void deveTratarRespostaSmtp5xxComoPermanente() throws Exception {
+        // Arrange
+        SMTPAddressFailedException falha = new SMTPAddressFailedException(
+            new InternetAddress("paciente@teste.com"), "RCPT TO", 550, "Mailbox unavailable");
+        MessagingException envelope = new MessagingException("Falha no envio", falha);
+
+        // Act & Assert
+        assertThat(SmtpFalhaClassifier.isTransitoria(new MailSendException(Map.of("mensagem", envelope)))).isFalse();
+    }
+
+    @Test
+    void deveTratarFalhaDeAutenticacaoComoPermanente() {
+        MailAuthenticationException erro = new MailAuthenticationException(new AuthenticationFailedException("535"));
+
+        assertThat(SmtpFalhaClassifier.isTransitoria(erro)).isFalse();
+    }
+
+    @Test
+    void deveTratarFalhaDeConexaoComoTransitoria() {
+        MessagingException falha = new MessagingException("Could not connect to SMTP host", new ConnectException("refused"));
+
+        assertThat(SmtpFalhaClassifier.isTransitoria(new MailSendException("Mail server connection failed", falha))).isTrue();
+    }
+}
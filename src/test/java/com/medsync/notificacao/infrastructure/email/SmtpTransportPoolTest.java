@@ -0,0 +1,90 @@
+package com.medsync.notificacao.infrastructure.email;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SmtpTransportPoolTest {
+
+    private final AtomicInteger conexoesAbertas = new AtomicInteger();
+
+    @Test
+    void deveReutilizarConexaoDevolvida() throws Exception {
+        // Arrange
+        Transport transport = transportConectado();
+        SmtpTransportPool pool = new SmtpTransportPool(() -> abrir(transport), 2, 60_000, 100);
+
+        // Act
+        SmtpTransportPool.Conexao primeira = pool.emprestar();
+        pool.devolver(primeira, true);
+        SmtpTransportPool.Conexao segunda = pool.emprestar();
+
+        // Assert: STARTTLS/AUTH feitos uma única vez
+        assertThat(segunda).isSameAs(primeira);
+        assertThat(conexoesAbertas.get()).isEqualTo(1);
+    }
+
+    @Test
+    void deveDescartarConexaoQueCaiuEnquantoOciosa() throws Exception {
+        // Arrange
+        Transport caida = transportConectado();
+        Transport nova = transportConectado();
+        AtomicInteger chamada = new AtomicInteger();
+        SmtpTransportPool pool = new SmtpTransportPool(() -> abrir(chamada.getAndIncrement() == 0 ? caida : nova), 1, 60_000, 100);
+        pool.devolver(pool.emprestar(), true);
+        when(caida.isConnected()).thenReturn(false);
+
+        // Act
+        SmtpTransportPool.Conexao conexao = pool.emprestar();
+
+        // Assert
+        assertThat(conexao.transport()).isSameAs(nova);
+        verify(caida).close();
+    }
+
+    @Test
+    void deveFalharQuandoTodasAsConexoesEstaoEmprestadas() throws Exception {
+        // Arrange
+        SmtpTransportPool pool = new SmtpTransportPool(() -> abrir(transportConectado()), 1, 60_000, 50);
+        pool.emprestar();
+
+        // Act / Assert
+        assertThatThrownBy(pool::emprestar)
+            .isInstanceOf(MessagingException.class)
+            .hasMessageContaining("Timeout");
+    }
+
+    @Test
+    void deveFecharConexoesOciosasExpiradas() throws Exception {
+        // Arrange: qualquer conexão ociosa já está expirada
+        Transport transport = transportConectado();
+        SmtpTransportPool pool = new SmtpTransportPool(() -> abrir(transport), 1, -1, 100);
+        pool.devolver(pool.emprestar(), true);
+
+        // Act
+        pool.removerOciosas();
+
+        // Assert
+        assertThat(pool.conexoesOciosas()).isZero();
+        verify(transport).close();
+    }
+
+    private Transport abrir(Transport transport) {
+        conexoesAbertas.incrementAndGet();
+        return transport;
+    }
+
+    private Transport transportConectado() {
+        Transport transport = mock(Transport.class);
+        when(transport.isConnected()).thenReturn(true);
+        return transport;
+    }
+}
@@ -0,0 +1,52 @@
+package com.medsync.notificacao.infrastructure.events;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medsync.notificacao.presentation.dto.NotificacaoRequest;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificacaoClienteEncoderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final NotificacaoClienteEncoder encoder = new NotificacaoClienteEncoder(objectMapper);
+
+    @Test
+    void deveCodificarNotificacaoEmJsonComSchemaVersionado() throws Exception {
+        // Arrange
+        UUID consultaId = UUID.randomUUID();
+        NotificacaoRequest notificacao = new NotificacaoRequest(
+            consultaId,
+            "João \"Silva\"",
+            "joao@teste.com",
+            "11999999999",
+            "Dra. Maria",
+            "",
+            null,
+            LocalDateTime.of(2025, 10, 20, 14, 30),
+            "CONSULTA_CRIADA",
+            "✅ Consulta Agendada com Sucesso",
+            "Olá!\nSua consulta foi agendada.",
+            LocalDateTime.of(2025, 10, 1, 9, 0, 5)
+        );
+
+        // Act
+        byte[] primeiro = encoder.encode(notificacao);
+        byte[] segundo = encoder.encode(notificacao);
+        JsonNode json = objectMapper.readTree(primeiro);
+
+        // Assert
+        assertThat(segundo).isEqualTo(primeiro);
+        assertThat(json.get("versao").asInt()).isEqualTo(NotificacaoClienteEncoder.VERSAO_SCHEMA);
+        assertThat(json.get("consulta_id").asText()).isEqualTo(consultaId.toString());
+        assertThat(json.get("paciente_nome").asText()).isEqualTo("João \"Silva\"");
+        assertThat(json.get("mensagem").asText()).isEqualTo("Olá!\nSua consulta foi agendada.");
+        assertThat(json.get("medico_telefone").isNull()).isTrue();
+        assertThat(json.get("data_hora").asText()).isEqualTo("2025-10-20T14:30:00");
+        assertThat(json.get("timestamp").asText()).isEqualTo("2025-10-01T09:00:05");
+    }
+}
@@ -0,0 +1,189 @@
+package com.medsync.notificacao.infrastructure.events;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medsync.notificacao.infrastructure.metrics.LatenciaEstagios;
+import com.medsync.notificacao.presentation.dto.NotificacaoRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.ThreadChannelConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class NotificacaoClientePublisherTest {
+
+    private static final String EXCHANGE = "ex_consultas";
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private PublisherConfirmTracker confirmTracker;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private NotificacaoClientePublisher publisher;
+
+    @AfterEach
+    void tearDown() {
+        if (publisher != null) {
+            publisher.destroy();
+        }
+    }
+
+    @Test
+    void devePublicarLoteComoArrayJson() throws Exception {
+        // Arrange: lote fecha em 2 itens; a janela longa não interfere
+        publisher = criar("lote", mock(ConnectionFactory.class), 2, 262_144, 60_000);
+        NotificacaoRequest primeira = notificacao();
+        NotificacaoRequest segunda = notificacao();
+
+        // Act
+        publisher.publicar(primeira);
+        publisher.publicar(segunda);
+
+        // Assert
+        ArgumentCaptor<Message> captor = ArgumentCaptor.forClass(Message.class);
+        verify(confirmTracker).publicar(eq(EXCHANGE), eq(NotificacaoClientePublisher.ROUTING_KEY_LOTE), captor.capture());
+        Message lote = captor.getValue();
+        assertThat(lote.getMessageProperties().getContentType()).isEqualTo(NotificacaoClientePublisher.CONTENT_TYPE_LOTE);
+        assertThat(lote.getMessageProperties().getHeaders()).containsEntry(NotificacaoClientePublisher.HEADER_LOTE_ITENS, 2);
+
+        JsonNode itens = objectMapper.readTree(lote.getBody());
+        assertThat(itens.isArray()).isTrue();
+        assertThat(itens).hasSize(2);
+        assertThat(itens.get(0).get("consulta_id").asText()).isEqualTo(primeira.consultaId().toString());
+        assertThat(itens.get(1).get("consulta_id").asText()).isEqualTo(segunda.consultaId().toString());
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    @Test
+    void devePublicarLoteParcialAoFimDaJanela() throws Exception {
+        // Arrange
+        publisher = criar("lote", mock(ConnectionFactory.class), 50, 262_144, 50);
+
+        // Act
+        publisher.publicar(notificacao());
+
+        // Assert
+        ArgumentCaptor<Message> captor = ArgumentCaptor.forClass(Message.class);
+        verify(confirmTracker, timeout(2_000)).publicar(eq(EXCHANGE), eq(NotificacaoClientePublisher.ROUTING_KEY_LOTE),
+            captor.capture());
+        assertThat(objectMapper.readTree(captor.getValue().getBody())).hasSize(1);
+    }
+
+    @Test
+    void deveFecharLoteAntesDeExcederOBuffer() throws Exception {
+        // Arrange: o buffer comporta um único item ("[" + item + "]")
+        int tamanhoItem = new NotificacaoClienteEncoder(objectMapper).encode(notificacao()).length;
+        publisher = criar("lote", mock(ConnectionFactory.class), 50, tamanhoItem + 2, 60_000);
+
+        // Act
+        publisher.publicar(notificacao());
+        publisher.publicar(notificacao());
+
+        // Assert: o primeiro item sai sozinho e o segundo só no encerramento
+        verify(confirmTracker).publicar(eq(EXCHANGE), eq(NotificacaoClientePublisher.ROUTING_KEY_LOTE), any(Message.class));
+        publisher.destroy();
+        publisher = null;
+        ArgumentCaptor<Message> captor = ArgumentCaptor.forClass(Message.class);
+        verify(confirmTracker, times(2))
+            .publicar(eq(EXCHANGE), eq(NotificacaoClientePublisher.ROUTING_KEY_LOTE), captor.capture());
+        assertThat(captor.getAllValues()).allSatisfy(lote -> assertThat(objectMapper.readTree(lote.getBody())).hasSize(1));
+    }
+
+    @Test
+    void devePublicarEmCanalDedicadoPorThread() {
+        // Arrange: confirms e devoluções desabilitados, como o modo exige
+        publisher = criar("thread-channel", new CachingConnectionFactory(new com.rabbitmq.client.ConnectionFactory()),
+            50, 262_144, 50);
+        assertThat(ReflectionTestUtils.getField(publisher, "threadChannelConnectionFactory"))
+            .isInstanceOf(ThreadChannelConnectionFactory.class);
+        // Template do canal dedicado substituído para não abrir conexão com o broker
+        RabbitTemplate threadChannelTemplate = mock(RabbitTemplate.class);
+        ReflectionTestUtils.setField(publisher, "threadChannelTemplate", threadChannelTemplate);
+        NotificacaoRequest notificacao = notificacao();
+
+        // Act
+        publisher.publicar(notificacao);
+
+        // Assert: routing key por consulta, fora do tracker de confirmação
+        verify(threadChannelTemplate).send(eq(EXCHANGE),
+            eq(NotificacaoClientePublisher.ROUTING_KEY_PREFIXO + notificacao.consultaId()), any(Message.class));
+        verify(confirmTracker, never()).publicar(any(), any(), any());
+    }
+
+    @Test
+    void deveRecusarThreadChannelComPublisherConfirmsHabilitados() {
+        // Arrange: configuração da aplicação (publisher-confirm-type correlated, publisher-returns)
+        CachingConnectionFactory connectionFactory = new CachingConnectionFactory(new com.rabbitmq.client.ConnectionFactory());
+        connectionFactory.setPublisherConfirmType(CachingConnectionFactory.ConfirmType.CORRELATED);
+        connectionFactory.setPublisherReturns(true);
+
+        // Act / Assert
+        assertThatThrownBy(() -> criar("thread-channel", connectionFactory, 50, 262_144, 50))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("thread-channel");
+    }
+
+    @Test
+    void deveUsarModoPadraoQuandoConnectionFactoryNaoExpoeConexaoNativa() {
+        // Arrange
+        publisher = criar("thread-channel", mock(ConnectionFactory.class), 50, 262_144, 50);
+        NotificacaoRequest notificacao = notificacao();
+
+        // Act
+        publisher.publicar(notificacao);
+
+        // Assert
+        verify(confirmTracker).publicar(eq(EXCHANGE),
+            eq(NotificacaoClientePublisher.ROUTING_KEY_PREFIXO + notificacao.consultaId()), any(Message.class));
+    }
+
+    private NotificacaoClientePublisher criar(String modo, ConnectionFactory connectionFactory,
+                                              int loteTamanho, int loteBufferBytes, long loteJanelaMs) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        return new NotificacaoClientePublisher(rabbitTemplate, new NotificacaoClienteEncoder(objectMapper), confirmTracker,
+            connectionFactory, meterRegistry, new LatenciaEstagios(meterRegistry, "America/Sao_Paulo"),
+            EXCHANGE, "json", modo, loteTamanho, loteBufferBytes, loteJanelaMs);
+    }
+
+    private NotificacaoRequest notificacao() {
+        return new NotificacaoRequest(
+            UUID.randomUUID(),
+            "João Silva",
+            "joao@teste.com",
+            "11999999999",
+            "Dra. Maria",
+            "maria@teste.com",
+            "1133334444",
+            LocalDateTime.of(2025, 10, 20, 14, 30),
+            "CONSULTA_CRIADA",
+            "✅ Consulta Agendada com Sucesso",
+            "Olá, João Silva!\nSua consulta foi agendada com sucesso.",
+            LocalDateTime.of(2025, 10, 1, 9, 0)
+        );
+    }
+}
@@ -0,0 +1,93 @@
+package com.medsync.notificacao.infrastructure.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medsync.notificacao.domain.events.ConsultaCriadaNotificacaoEvent;
+import com.medsync.notificacao.domain.events.ConsultaEditadaNotificacaoEvent;
+import com.medsync.notificacao.domain.events.EventoNaoReconhecido;
+import com.medsync.notificacao.domain.events.NotificacaoEvent;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NotificacaoEventDecoderTest {
+
+    private final NotificacaoEventDecoder decoder = new NotificacaoEventDecoder(new ObjectMapper());
+
+    @Test
+    void deveDecodificarConsultaCriadaComCamposDesconhecidos() {
+        // Arrange
+        String json = """
+            {
+                "consulta_id": "7b0b3c4e-4c1e-4a43-9f52-2b0f4a1d9c11",
+                "paciente_nome": "João Silva",
+                "campo_novo": 42,
+                "evento": "consulta_criada_notificacao",
+                "data_hora": "2025-10-20T14:30:00"
+            }
+            """;
+
+        // Act
+        NotificacaoEvent evento = decoder.decode(json.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+
+        // Assert
+        assertThat(evento).isInstanceOf(ConsultaCriadaNotificacaoEvent.class);
+        ConsultaCriadaNotificacaoEvent criada = (ConsultaCriadaNotificacaoEvent) evento;
+        assertThat(criada.evento()).isEqualTo("consulta_criada_notificacao");
+        assertThat(criada.pacienteNome()).isEqualTo("João Silva");
+        assertThat(criada.dataHora()).isEqualTo("2025-10-20T14:30:00");
+    }
+
+    @Test
+    void deveDecodificarConsultaEditada() {
+        // Arrange
+        String json = """
+            {
+                "evento": "consulta_editada_notificacao",
+                "consulta_id": "7b0b3c4e-4c1e-4a43-9f52-2b0f4a1d9c11",
+                "nova_data_hora": "2025-10-21T09:00:00",
+                "alteracoes": {"dataHora": "2025-10-21T09:00:00"}
+            }
+            """;
+
+        // Act
+        NotificacaoEvent evento = decoder.decode(json.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+
+        // Assert
+        assertThat(evento).isInstanceOf(ConsultaEditadaNotificacaoEvent.class);
+        assertThat(((ConsultaEditadaNotificacaoEvent) evento).alteracoes()).containsKey("dataHora");
+    }
+
+    @Test
+    void deveRetornarEventoNaoReconhecidoParaTipoDesconhecido() {
+        // Act
+        NotificacaoEvent evento = decoder.decode(
+            "{\"evento\": \"consulta_removida\", \"consulta_id\": \"x\"}".getBytes(StandardCharsets.UTF_8),
+            StandardCharsets.UTF_8);
+
+        // Assert
+        assertThat(evento).isInstanceOf(EventoNaoReconhecido.class);
+        assertThat(evento.evento()).isEqualTo("consulta_removida");
+    }
+
+    @Test
+    void deveDecodificarPayloadEmCharsetExplicitoDiferenteDeUtf8() {
+        // Arrange
+        String json = "{\"evento\": \"consulta_criada_notificacao\", \"paciente_nome\": \"Conceição\"}";
+
+        // Act
+        NotificacaoEvent evento = decoder.decode(json.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.ISO_8859_1);
+
+        // Assert
+        assertThat(((ConsultaCriadaNotificacaoEvent) evento).pacienteNome()).isEqualTo("Conceição");
+    }
+
+    @Test
+    void deveFalharParaJsonInvalido() {
+        assertThatThrownBy(() -> decoder.decode("{evento".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("Falha ao deserializar");
+    }
+}
@@ -0,0 +1,115 @@
+package com.medsync.notificacao.infrastructure.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medsync.notificacao.application.services.NotificacaoService;
+import com.medsync.notificacao.domain.events.ConsultaCriadaNotificacaoEvent;
+import com.medsync.notificacao.infrastructure.metrics.LatenciaEstagios;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class NotificacaoEventListenerTest {
+
+    private static final String EVENTO_VALIDO = """
+        {"evento": "consulta_criada_notificacao", "consulta_id": "7b0b3c4e-4c1e-4a43-9f52-2b0f4a1d9c11",
+         "data_hora": "2025-10-20T14:30:00", "timestamp": "2025-10-01T09:00:00"}
+        """;
+
+    @Mock
+    private NotificacaoService notificacaoService;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private Channel channel;
+
+    private SimpleMeterRegistry meterRegistry;
+    private NotificacaoEventListener listener;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        listener = new NotificacaoEventListener(notificacaoService, new NotificacaoEventDecoder(new ObjectMapper()),
+            rabbitTemplate, new LatenciaEstagios(meterRegistry, "America/Sao_Paulo"));
+        ReflectionTestUtils.setField(listener, "queueNotificacoesDlq", "q_notificacoes_dlq");
+    }
+
+    @Test
+    void deveConfirmarLoteInteiroComUmUnicoAck() throws Exception {
+        // Act
+        listener.handleLoteConsultaNotificacao(List.of(mensagem(1, EVENTO_VALIDO), mensagem(2, EVENTO_VALIDO)), channel);
+
+        // Assert
+        verify(notificacaoService, times(2)).processarConsultaCriada(any(ConsultaCriadaNotificacaoEvent.class));
+        verify(channel).basicAck(2, true);
+        verify(channel, never()).basicNack(anyLong(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    void deveDevolverSomenteMensagensNaoTratadasQuandoADlqFalha() throws Exception {
+        // Arrange: a segunda mensagem é inválida e a publicação na DLQ falha
+        doThrow(new AmqpException("broker indisponível"))
+            .when(rabbitTemplate).send(eq(""), anyString(), any(Message.class));
+        List<Message> lote = List.of(mensagem(1, EVENTO_VALIDO), mensagem(2, "{json inválido"), mensagem(3, EVENTO_VALIDO));
+
+        // Act
+        listener.handleLoteConsultaNotificacao(lote, channel);
+
+        // Assert: a primeira, já processada, é confirmada; só as seguintes voltam para a fila
+        verify(notificacaoService, times(1)).processarConsultaCriada(any(ConsultaCriadaNotificacaoEvent.class));
+        InOrder ordem = inOrder(channel);
+        ordem.verify(channel).basicAck(1, true);
+        ordem.verify(channel).basicNack(3, true, true);
+    }
+
+    @Test
+    void deveAgruparEventosNaoReconhecidosNaTagDesconhecido() throws Exception {
+        // Arrange
+        String eventoNovo = """
+            {"evento": "consulta_remarcada_v2_notificacao", "consulta_id": "7b0b3c4e-4c1e-4a43-9f52-2b0f4a1d9c11",
+             "timestamp": "2025-10-01T09:00:00"}
+            """;
+
+        // Act
+        listener.handleLoteConsultaNotificacao(List.of(mensagem(1, eventoNovo), mensagem(2, EVENTO_VALIDO)), channel);
+
+        // Assert
+        assertThat(meterRegistry.find(LatenciaEstagios.METRICA).tag("estagio", "parse").timers())
+            .extracting(timer -> timer.getId().getTag("evento"))
+            .containsExactlyInAnyOrder(LatenciaEstagios.EVENTO_DESCONHECIDO, "consulta_criada");
+        verify(channel).basicAck(2, true);
+    }
+
+    private Message mensagem(long deliveryTag, String json) {
+        MessageProperties properties = new MessageProperties();
+        properties.setDeliveryTag(deliveryTag);
+        return new Message(json.getBytes(StandardCharsets.UTF_8), properties);
+    }
+}
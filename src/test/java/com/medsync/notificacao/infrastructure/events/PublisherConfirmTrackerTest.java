@@ -0,0 +1,132 @@
+package com.medsync.notificacao.infrastructure.events;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class PublisherConfirmTrackerTest {
+
+    private static final String EXCHANGE = "medsync.notificacoes";
+    private static final String ROUTING_KEY = "notificacao.cliente";
+    private static final long CONFIRM_TIMEOUT_MS = 1000;
+    private static final int MAX_RETRIES = 2;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // Cada publicação enviada ao broker, na ordem, para o teste decidir o confirm
+    private final BlockingQueue<CorrelationData> publicacoes = new LinkedBlockingQueue<>();
+    private final Message message = new Message("{}".getBytes(StandardCharsets.UTF_8), new MessageProperties());
+
+    private PublisherConfirmTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> publicacoes.add(invocation.getArgument(3)))
+            .when(rabbitTemplate).send(eq(EXCHANGE), eq(ROUTING_KEY), eq(message), any(CorrelationData.class));
+        tracker = new PublisherConfirmTracker(rabbitTemplate, meterRegistry, CONFIRM_TIMEOUT_MS, MAX_RETRIES, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracker.shutdown();
+    }
+
+    @Test
+    void deveConcluirPublicacaoConfirmadaSemRepublicar() throws InterruptedException {
+        // Act
+        tracker.publicar(EXCHANGE, ROUTING_KEY, message);
+        proximaPublicacao().getFuture().complete(new CorrelationData.Confirm(true, null));
+
+        // Assert
+        assertThat(tracker.emVoo()).isZero();
+        assertThat(publicacoes.poll(100, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(contador("notificacao.rabbitmq.publish.republished")).isZero();
+        assertThat(meterRegistry.get("notificacao.rabbitmq.confirm.latency").tag("result", "ack").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void deveRepublicarAposNack() throws InterruptedException {
+        // Arrange
+        tracker.publicar(EXCHANGE, ROUTING_KEY, message);
+
+        // Act: nack sem motivo, como o broker envia em falhas internas
+        proximaPublicacao().getFuture().complete(new CorrelationData.Confirm(false, null));
+        proximaPublicacao().getFuture().complete(new CorrelationData.Confirm(true, null));
+
+        // Assert
+        assertThat(contador("notificacao.rabbitmq.publish.republished")).isEqualTo(1);
+        assertThat(contador("notificacao.rabbitmq.publish.failed")).isZero();
+        assertThat(tracker.emVoo()).isZero();
+    }
+
+    @Test
+    void deveRepublicarMensagemDevolvidaPeloBroker() throws InterruptedException {
+        // Arrange
+        tracker.publicar(EXCHANGE, ROUTING_KEY, message);
+        CorrelationData primeira = proximaPublicacao();
+
+        // Act: mandatory sem fila de destino chega como ack com a mensagem devolvida
+        primeira.setReturned(new ReturnedMessage(message, 312, "NO_ROUTE", EXCHANGE, ROUTING_KEY));
+        primeira.getFuture().complete(new CorrelationData.Confirm(true, null));
+        proximaPublicacao().getFuture().complete(new CorrelationData.Confirm(true, null));
+
+        // Assert
+        assertThat(contador("notificacao.rabbitmq.publish.republished")).isEqualTo(1);
+        assertThat(meterRegistry.get("notificacao.rabbitmq.confirm.latency").tag("result", "returned").timer().count())
+            .isEqualTo(1);
+        assertThat(tracker.emVoo()).isZero();
+    }
+
+    @Test
+    void deveDescartarPublicacaoAposEsgotarTentativasPorTimeout() throws InterruptedException {
+        // Act: nenhum confirm chega; primeira tentativa e MAX_RETRIES republicações expiram
+        tracker.publicar(EXCHANGE, ROUTING_KEY, message);
+        for (int tentativa = 0; tentativa <= MAX_RETRIES; tentativa++) {
+            proximaPublicacao();
+        }
+
+        // Assert
+        await().atMost(Duration.ofSeconds(5))
+            .untilAsserted(() -> assertThat(contador("notificacao.rabbitmq.publish.failed")).isEqualTo(1));
+        assertThat(contador("notificacao.rabbitmq.publish.republished")).isEqualTo(MAX_RETRIES);
+        assertThat(publicacoes).isEmpty();
+        assertThat(tracker.emVoo()).isZero();
+        assertThat(meterRegistry.get("notificacao.rabbitmq.confirm.latency").tag("result", "timeout").timer().count())
+            .isEqualTo(MAX_RETRIES + 1);
+    }
+
+    private CorrelationData proximaPublicacao() throws InterruptedException {
+        CorrelationData correlationData = publicacoes.poll(5, TimeUnit.SECONDS);
+        assertThat(correlationData).as("publicação enviada ao broker").isNotNull();
+        return correlationData;
+    }
+
+    private double contador(String nome) {
+        return meterRegistry.get(nome).counter().count();
+    }
+}
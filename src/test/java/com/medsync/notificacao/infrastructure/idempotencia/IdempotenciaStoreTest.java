@@ -0,0 +1,146 @@
+package com.medsync.notificacao.infrastructure.idempotencia;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotenciaStoreTest {
+
+    private static final String CONSULTA_ID = "7b0b3c4e-4c1e-4a43-9f52-2b0f4a1d9c11";
+    private static final String EVENTO = "consulta_criada_notificacao";
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void deveDescartarReentregaDoMesmoEvento() {
+        // Arrange
+        IdempotenciaStore store = criarStore(600_000, "");
+
+        // Act
+        boolean primeira = store.registrarSeNovo(CONSULTA_ID, EVENTO, "2025-10-01T09:00:00");
+        store.confirmar(CONSULTA_ID, EVENTO, "2025-10-01T09:00:00");
+        boolean reentrega = store.registrarSeNovo(CONSULTA_ID, EVENTO, "2025-10-01T09:00:00");
+        boolean outroTimestamp = store.registrarSeNovo(CONSULTA_ID, EVENTO, "2025-10-01T09:05:00");
+
+        // Assert
+        assertThat(primeira).isTrue();
+        assertThat(reentrega).isFalse();
+        assertThat(outroTimestamp).isTrue();
+    }
+
+    @Test
+    void deveDescartarReentregaForaDaJanelaExataPeloBloomFilter() {
+        // Arrange: janela exata zerada, só o Bloom filter lembra do evento
+        IdempotenciaStore store = criarStore(-1, "");
+        store.registrarSeNovo(CONSULTA_ID, EVENTO, "2025-10-01T09:00:00");
+        store.confirmar(CONSULTA_ID, EVENTO, "2025-10-01T09:00:00");
+        store.manutencao();
+
+        // Act
+        boolean reentrega = store.registrarSeNovo(CONSULTA_ID, EVENTO, "2025-10-01T09:00:00");
+
+        // Assert
+        assertThat(reentrega).isFalse();
+    }
+
+    @Test
+    void deveRestaurarEstadoDoArquivoAposRestart() {
+        // Arrange
+        String arquivo = diretorio.resolve("idempotencia.bin").toString();
+        IdempotenciaStore antes = criarStore(600_000, arquivo);
+        antes.registrarSeNovo(CONSULTA_ID, EVENTO, "2025-10-01T09:00:00");
+        antes.confirmar(CONSULTA_ID, EVENTO, "2025-10-01T09:00:00");
+        antes.shutdown();
+
+        // Act
+        IdempotenciaStore depois = criarStore(600_000, arquivo);
+
+        // Assert
+        assertThat(depois.registrarSeNovo(CONSULTA_ID, EVENTO, "2025-10-01T09:00:00")).isFalse();
+        assertThat(depois.registrarSeNovo(CONSULTA_ID, EVENTO, "2025-10-02T09:00:00")).isTrue();
+    }
+
+    @Test
+    void deveDescartarEntregaSimultaneaEnquantoOutraEstaEmProcessamento() {
+        // Arrange
+        IdempotenciaStore store = criarStore(600_000, "");
+        store.registrarSeNovo(CONSULTA_ID, EVENTO, "2025-10-01T09:00:00");
+
+        // Act: a primeira entrega ainda não confirmou nem liberou
+        boolean simultanea = store.registrarSeNovo(CONSULTA_ID, EVENTO, "2025-10-01T09:00:00");
+
+        // Assert
+        assertThat(simultanea).isFalse();
+    }
+
+    @Test
+    void devePermitirReprocessarAposFalhaNoProcessamento() {
+        // Arrange
+        IdempotenciaStore store = criarStore(600_000, "");
+        store.registrarSeNovo(CONSULTA_ID, EVENTO, "2025-10-01T09:00:00");
+
+        // Act
+        store.liberar(CONSULTA_ID, EVENTO, "2025-10-01T09:00:00");
+        boolean reentrega = store.registrarSeNovo(CONSULTA_ID, EVENTO, "2025-10-01T09:00:00");
+
+        // Assert
+        assertThat(reentrega).isTrue();
+    }
+
+    @Test
+    void naoDevePersistirChaveQueNaoFoiConfirmada() {
+        // Arrange: processamento interrompido antes de confirmar
+        String arquivo = diretorio.resolve("idempotencia.bin").toString();
+        IdempotenciaStore antes = criarStore(600_000, arquivo);
+        antes.registrarSeNovo(CONSULTA_ID, EVENTO, "2025-10-01T09:00:00");
+        antes.shutdown();
+
+        // Act
+        IdempotenciaStore depois = criarStore(600_000, arquivo);
+
+        // Assert
+        assertThat(depois.registrarSeNovo(CONSULTA_ID, EVENTO, "2025-10-01T09:00:00")).isTrue();
+    }
+
+    @Test
+    void deveReaplicarLogDeConfirmacoesAposCrashSemSnapshot() {
+        // Arrange: confirmado e derrubado sem manutenção nem shutdown
+        String arquivo = diretorio.resolve("idempotencia.bin").toString();
+        IdempotenciaStore antes = criarStore(600_000, arquivo);
+        antes.registrarSeNovo(CONSULTA_ID, EVENTO, "2025-10-01T09:00:00");
+        antes.confirmar(CONSULTA_ID, EVENTO, "2025-10-01T09:00:00");
+
+        // Act
+        IdempotenciaStore depois = criarStore(600_000, arquivo);
+
+        // Assert
+        assertThat(depois.registrarSeNovo(CONSULTA_ID, EVENTO, "2025-10-01T09:00:00")).isFalse();
+        assertThat(depois.registrarSeNovo(CONSULTA_ID, EVENTO, "2025-10-02T09:00:00")).isTrue();
+    }
+
+    @Test
+    void deveTruncarLogQuandoSnapshotEhGravado() {
+        // Arrange
+        String arquivo = diretorio.resolve("idempotencia.bin").toString();
+        IdempotenciaStore store = criarStore(600_000, arquivo);
+        store.registrarSeNovo(CONSULTA_ID, EVENTO, "2025-10-01T09:00:00");
+        store.confirmar(CONSULTA_ID, EVENTO, "2025-10-01T09:00:00");
+        assertThat(diretorio.resolve("idempotencia.bin.log")).isNotEmptyFile();
+
+        // Act
+        store.manutencao();
+
+        // Assert
+        assertThat(diretorio.resolve("idempotencia.bin.log")).isEmptyFile();
+        assertThat(criarStore(600_000, arquivo).registrarSeNovo(CONSULTA_ID, EVENTO, "2025-10-01T09:00:00")).isFalse();
+    }
+
+    private IdempotenciaStore criarStore(long janelaExataMs, String arquivo) {
+        return new IdempotenciaStore(new SimpleMeterRegistry(), true, janelaExataMs, 86_400_000, 1_000, 0.0001, arquivo);
+    }
+}
@@ -0,0 +1,67 @@
+package com.medsync.notificacao.infrastructure.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatenciaEstagiosTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LatenciaEstagios latencia = new LatenciaEstagios(meterRegistry, "America/Sao_Paulo");
+
+    @Test
+    void deveRegistrarEsperaNoBrokerPeloTimestampDoEvento() {
+        // Arrange
+        String timestamp = LocalDateTime.now(ZoneId.of("America/Sao_Paulo")).minusSeconds(30).toString();
+
+        // Act
+        latencia.registrarDesde(LatenciaEstagios.Estagio.BROKER, "consulta_criada_notificacao",
+            latencia.instanteEvento(timestamp));
+
+        // Assert
+        Timer timer = meterRegistry.get(LatenciaEstagios.METRICA)
+            .tag("estagio", "broker")
+            .tag("evento", "consulta_criada")
+            .timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.totalTime(TimeUnit.SECONDS)).isBetween(29.0, 60.0);
+    }
+
+    @Test
+    void deveUsarAMesmaTagParaEventoETipoDeNotificacao() {
+        // Act
+        latencia.registrar(LatenciaEstagios.Estagio.PARSE, "consulta_editada_notificacao", System.nanoTime());
+        latencia.registrar(LatenciaEstagios.Estagio.PUBLICACAO_AMQP, "CONSULTA_EDITADA", System.nanoTime());
+
+        // Assert
+        assertThat(meterRegistry.find(LatenciaEstagios.METRICA).tag("evento", "consulta_editada").timers()).hasSize(2);
+    }
+
+    @Test
+    void deveSepararRenderizacaoDoTextoEDoHtml() {
+        // Act
+        latencia.registrar(LatenciaEstagios.Estagio.TEMPLATE_TEXTO, "consulta_criada_notificacao", System.nanoTime());
+        latencia.registrar(LatenciaEstagios.Estagio.TEMPLATE_HTML, "CONSULTA_CRIADA", System.nanoTime());
+
+        // Assert
+        assertThat(meterRegistry.get(LatenciaEstagios.METRICA).tag("estagio", "template_texto").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(LatenciaEstagios.METRICA).tag("estagio", "template_html").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void deveIgnorarTimestampInvalido() {
+        // Act
+        latencia.registrarDesde(LatenciaEstagios.Estagio.BROKER, "consulta_criada_notificacao",
+            latencia.instanteEvento("ontem"));
+
+        // Assert
+        assertThat(latencia.instanteEvento("ontem")).isEqualTo(-1);
+        assertThat(meterRegistry.find(LatenciaEstagios.METRICA).timers()).isEmpty();
+    }
+}
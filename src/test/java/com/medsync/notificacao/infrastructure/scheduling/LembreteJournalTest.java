@@ -0,0 +1,118 @@
+package com.medsync.notificacao.infrastructure.scheduling;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LembreteJournalTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void deveRestaurarSomenteLembretesNaoEncerradosAposRestart() {
+        // Arrange
+        long instante = System.currentTimeMillis() + 3_600_000;
+        ContatoConsulta consulta = criarConsulta();
+        LembreteJournal journal = criarJournal(100_000);
+        long dadosOffset = journal.registrarConsulta(consulta);
+        journal.registrarAgendamento(consulta.consultaId(), 0, 24, instante, dadosOffset);
+        journal.registrarAgendamento(consulta.consultaId(), 1, 2, instante + 1, dadosOffset);
+        journal.registrarEncerramento(consulta.consultaId(), 0, instante);
+        journal.shutdown();
+
+        // Act
+        List<LembreteJournal.LembreteRestaurado> restaurados = criarJournal(100_000).restaurar();
+
+        // Assert
+        assertThat(restaurados).hasSize(1);
+        LembreteJournal.LembreteRestaurado restaurado = restaurados.get(0);
+        assertThat(restaurado.indiceAntecedencia()).isEqualTo(1);
+        assertThat(restaurado.horas()).isEqualTo(2);
+        assertThat(restaurado.instanteMs()).isEqualTo(instante + 1);
+        assertThat(restaurado.consulta().consultaId()).isEqualTo(consulta.consultaId());
+        assertThat(restaurado.consulta().pacienteEmail()).isEqualTo(consulta.pacienteEmail());
+        assertThat(restaurado.consulta().dataHora()).isEqualTo(consulta.dataHora());
+    }
+
+    @Test
+    void deveCompactarMantendoOsLembretesVivos() {
+        // Arrange: 9 de 10 lembretes encerrados
+        long instante = System.currentTimeMillis() + 3_600_000;
+        LembreteJournal journal = criarJournal(10);
+        UUID vivo = null;
+        for (int i = 0; i < 10; i++) {
+            ContatoConsulta consulta = criarConsulta();
+            journal.registrarAgendamento(consulta.consultaId(), 0, 24, instante, journal.registrarConsulta(consulta));
+            if (i < 9) {
+                journal.registrarEncerramento(consulta.consultaId(), 0, instante);
+            } else {
+                vivo = consulta.consultaId();
+            }
+        }
+
+        // Act
+        journal.manutencao();
+        journal.shutdown();
+        List<LembreteJournal.LembreteRestaurado> restaurados = criarJournal(10).restaurar();
+
+        // Assert
+        assertThat(journal.registros()).isEqualTo(1);
+        assertThat(restaurados).extracting(restaurado -> restaurado.consulta().consultaId()).containsExactly(vivo);
+    }
+
+    @Test
+    void deveRecriarJournalEmFormatoDesconhecidoSemRestaurarRegistrosAntigos() throws IOException {
+        // Arrange: journal com um lembrete vivo e cabeçalho corrompido
+        long instante = System.currentTimeMillis() + 3_600_000;
+        ContatoConsulta consulta = criarConsulta();
+        LembreteJournal journal = criarJournal(100_000);
+        journal.registrarAgendamento(consulta.consultaId(), 0, 24, instante, journal.registrarConsulta(consulta));
+        journal.shutdown();
+        try (FileChannel canal = FileChannel.open(diretorio.resolve("lembretes.journal"), StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.allocate(Integer.BYTES).putInt(0xdeadbeef).flip(), 0);
+        }
+
+        // Act
+        LembreteJournal recriado = criarJournal(100_000);
+        List<LembreteJournal.LembreteRestaurado> restaurados = recriado.restaurar();
+        ContatoConsulta nova = criarConsulta();
+        recriado.registrarAgendamento(nova.consultaId(), 1, 2, instante, recriado.registrarConsulta(nova));
+        recriado.shutdown();
+
+        // Assert
+        assertThat(restaurados).isEmpty();
+        assertThat(recriado.registros()).isEqualTo(1);
+        assertThat(criarJournal(100_000).restaurar())
+            .extracting(restaurado -> restaurado.consulta().consultaId()).containsExactly(nova.consultaId());
+    }
+
+    private LembreteJournal criarJournal(long compactacaoMinimoRegistros) {
+        return new LembreteJournal(new SimpleMeterRegistry(), diretorio.toString(), 1024, 3_600_000, compactacaoMinimoRegistros);
+    }
+
+    private ContatoConsulta criarConsulta() {
+        return new ContatoConsulta(
+            UUID.randomUUID(),
+            "João Silva",
+            "joao@email.com",
+            "11999999999",
+            "Dra. Maria Santos",
+            "maria@email.com",
+            "11888888888",
+            LocalDateTime.of(2030, 12, 25, 14, 30),
+            "CONSULTA_CRIADA"
+        );
+    }
+}
@@ -0,0 +1,70 @@
+package com.medsync.notificacao.infrastructure.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RodaTemporizacaoTest {
+
+    private static final long TICK_MS = 1000;
+    private static final long INICIO_MS = 1_700_000_000_000L;
+
+    @Test
+    void deveDispararSomenteAoAtingirOInstanteAgendado() {
+        // Arrange
+        RodaTemporizacao<String> roda = new RodaTemporizacao<>(TICK_MS, INICIO_MS);
+        roda.agendar("a", INICIO_MS + 5 * TICK_MS);
+
+        // Act
+        List<String> antes = roda.avancar(INICIO_MS + 4 * TICK_MS);
+        List<String> depois = roda.avancar(INICIO_MS + 5 * TICK_MS);
+
+        // Assert
+        assertThat(antes).isEmpty();
+        assertThat(depois).containsExactly("a");
+        assertThat(roda.pendentes()).isZero();
+    }
+
+    @Test
+    void deveDescerDeNivelAgendamentosDistantes() {
+        // Arrange: prazos nos níveis 1 e 2 da roda
+        RodaTemporizacao<Long> roda = new RodaTemporizacao<>(TICK_MS, INICIO_MS);
+        long[] ticks = { 300, 1_000, 70_000, 86_400 };
+        for (long tick : ticks) {
+            roda.agendar(tick, INICIO_MS + tick * TICK_MS);
+        }
+
+        // Act: avança tick a tick registrando em qual tick cada valor disparou
+        List<Long> disparos = new ArrayList<>();
+        for (long tick = 1; tick <= 86_400; tick++) {
+            for (Long valor : roda.avancar(INICIO_MS + tick * TICK_MS)) {
+                assertThat(valor).isEqualTo(tick);
+                disparos.add(valor);
+            }
+        }
+
+        // Assert
+        assertThat(disparos).containsExactly(300L, 1_000L, 70_000L, 86_400L);
+    }
+
+    @Test
+    void deveIgnorarAgendamentoCancelado() {
+        // Arrange
+        RodaTemporizacao<String> roda = new RodaTemporizacao<>(TICK_MS, INICIO_MS);
+        RodaTemporizacao.Agendamento<String> cancelado = roda.agendar("cancelado", INICIO_MS + 600 * TICK_MS);
+        roda.agendar("mantido", INICIO_MS + 600 * TICK_MS);
+
+        // Act
+        boolean primeiroCancelamento = roda.cancelar(cancelado);
+        boolean segundoCancelamento = roda.cancelar(cancelado);
+        List<String> disparados = roda.avancar(INICIO_MS + 600 * TICK_MS);
+
+        // Assert
+        assertThat(primeiroCancelamento).isTrue();
+        assertThat(segundoCancelamento).isFalse();
+        assertThat(disparados).containsExactly("mantido");
+    }
+}